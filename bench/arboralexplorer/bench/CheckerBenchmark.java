@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.bench;
+
+import arboralexplorer.Pair;
+import arboralexplorer.algo.ArboralChecker;
+import arboralexplorer.algo.upperbound.GreedyASS;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.ViolationList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Finds the violations of an input, which has many, and of its Greedy
+ * solution, which has none, and the subcritical points of that solution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CheckerBenchmark {
+
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    @Param({"RANDOM", "PERMUTATION", "SEQUENTIAL", "BIT_REVERSAL"})
+    public Shape shape;
+
+    @Param({"ROW_SCAN", "SEGMENT_TREE"})
+    public ArboralChecker.Method method;
+
+    private GridSet input, solution;
+
+    @Setup
+    public void setup() {
+        input = shape.generate(size);
+        solution = GreedyASS.solve(input);
+    }
+
+    @Benchmark
+    public ViolationList inputViolations() {
+        return ArboralChecker.getAllAssViolations(input, method);
+    }
+
+    @Benchmark
+    public boolean solutionIsSatisfied() {
+        return ArboralChecker.isArborallySatisfied(solution, method);
+    }
+
+    @Benchmark
+    public List<Pair<Integer, Integer>> subCriticalPoints() {
+        return ArboralChecker.getAllSubCriticalPoints(solution);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.bench;
+
+import arboralexplorer.algo.Formulation;
+import arboralexplorer.data.GridSet;
+import jCMPL.Cmpl;
+import jCMPL.CmplException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the ILP formulations: the time CMPL takes to generate the model,
+ * without solving it, and the time to solve its linear programming relaxation
+ * and the integer program itself. These need a working CMPL installation.
+ *
+ * The main method prints the size of each model and the quality of its linear
+ * programming bound instead, as these are not timings. Its arguments are the
+ * grid sizes to compare, for example:
+ *
+ * java arboralexplorer.bench.FormulationBenchmark 6 8 10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class FormulationBenchmark {
+
+    @Param({"6", "8", "10"})
+    public int size;
+
+    @Param({"RANDOM", "PERMUTATION"})
+    public Shape shape;
+
+    @Param({"FULL", "COMPACT"})
+    public Formulation formulation;
+
+    private GridSet input;
+
+    @Setup
+    public void setup() {
+        input = shape.generate(size);
+    }
+
+    @Benchmark
+    public int build() throws CmplException {
+        Cmpl model = formulation.createIntegerModel(input);
+        model.setOption("%arg -noOutput");
+
+        try {
+            model.solve();
+        } catch (CmplException ex) {
+            // Without an output file, there is no solution to read back
+            if (model.cmplStatus() == Cmpl.CMPL_FAILED) {
+                throw ex;
+            }
+        }
+
+        return model.cmplStatus();
+    }
+
+    @Benchmark
+    public double solveRelaxation() throws CmplException {
+        Cmpl model = formulation.createRelaxedModel(input);
+        model.solve();
+        return model.solution().value();
+    }
+
+    @Benchmark
+    public double solve() throws CmplException {
+        Cmpl model = formulation.createIntegerModel(input);
+        model.solve();
+        return model.solution().value();
+    }
+
+    public static void main(String[] args) throws CmplException {
+        int[] sizes = args.length == 0 ? new int[]{6, 8, 10} : new int[args.length];
+
+        for (int a = 0; a < args.length; a++) {
+            sizes[a] = Integer.parseInt(args[a]);
+        }
+
+        System.out.println("size,shape,formulation,variables,constraints,lp bound,optimum,lp time (ms),ilp time (ms)");
+
+        for (int size : sizes) {
+            for (Shape shape : Shape.values()) {
+                GridSet input = shape.generate(size);
+
+                for (Formulation formulation : Formulation.values()) {
+                    long start = System.nanoTime();
+                    Cmpl relaxation = formulation.createRelaxedModel(input);
+                    relaxation.solve();
+                    long lpTime = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    Cmpl ilp = formulation.createIntegerModel(input);
+                    ilp.solve();
+                    long ilpTime = System.nanoTime() - start;
+
+                    System.out.printf(Locale.ROOT, "%d,%s,%s,%d,%d,%.3f,%.0f,%.1f,%.1f%n", size, shape, formulation,
+                            ilp.nrOfVariables(), ilp.nrOfConstraints(),
+                            relaxation.solution().value(), ilp.solution().value(),
+                            lpTime / 1e6, ilpTime / 1e6);
+                }
+            }
+        }
+    }
+}
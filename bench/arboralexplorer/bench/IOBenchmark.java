@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.bench;
+
+import arboralexplorer.algo.upperbound.GreedyASS;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.io.GridSetReader;
+import arboralexplorer.io.GridSetWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes and reads the Greedy solution of an input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IOBenchmark {
+
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    @Param({"RANDOM", "PERMUTATION", "SEQUENTIAL", "BIT_REVERSAL"})
+    public Shape shape;
+
+    private GridSet solution;
+    private Path readFile, writeFile;
+
+    @Setup
+    public void setup() throws IOException {
+        solution = GreedyASS.solve(shape.generate(size));
+        readFile = Files.createTempFile("arboral-bench", ".txt");
+        writeFile = Files.createTempFile("arboral-bench", ".txt");
+        GridSetWriter.exportGrid(solution, readFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(readFile);
+        Files.deleteIfExists(writeFile);
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        GridSetWriter.exportGrid(solution, writeFile);
+    }
+
+    @Benchmark
+    public GridSet read() throws IOException {
+        return GridSetReader.importGrid(readFile);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.bench;
+
+import arboralexplorer.algo.GridSetGenerator;
+import arboralexplorer.data.GridSet;
+import java.util.Random;
+
+/**
+ * The input shapes the benchmarks are run on. Every shape makes an n x n grid
+ * with one access per row. The random shapes use a fixed seed for every
+ * combination of shape and size, so that all benchmarks and all runs see the
+ * same grids.
+ */
+public enum Shape {
+
+    RANDOM, PERMUTATION, SEQUENTIAL, BIT_REVERSAL;
+
+    public GridSet generate(int n) {
+        Random rand = new Random(31L * name().hashCode() + n);
+
+        switch (this) {
+            case RANDOM:
+                return GridSetGenerator.random(n, n, rand);
+            case PERMUTATION:
+                return GridSetGenerator.randomPermutation(n, n, rand);
+            case SEQUENTIAL:
+                return GridSetGenerator.sequential(n, n);
+            case BIT_REVERSAL:
+                return GridSetGenerator.bitReversal(n, n);
+            default:
+                throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.bench;
+
+import arboralexplorer.batch.Algorithm;
+import arboralexplorer.data.GridSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the upper and lower bounds that do not need CMPL, by their batch-mode
+ * name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SolverBenchmark {
+
+    @Param({"greedy", "signed-greedy", "opt-static-tree", "balanced-tree", "wilber1", "wilberx", "random-minimal"})
+    public String algorithm;
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"RANDOM", "PERMUTATION", "SEQUENTIAL", "BIT_REVERSAL"})
+    public Shape shape;
+
+    private Algorithm solver;
+    private GridSet input;
+
+    @Setup
+    public void setup() {
+        solver = Algorithm.forName(algorithm);
+        input = shape.generate(size);
+    }
+
+    @Benchmark
+    public GridSet solve() throws Exception {
+        return solver.solve(input);
+    }
+}
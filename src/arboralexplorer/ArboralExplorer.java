@@ -15,11 +15,25 @@
  */
 package arboralexplorer;
 
+import arboralexplorer.batch.BatchRunner;
 import arboralexplorer.gui.MainFrame;
+import java.util.Arrays;
 
 public class ArboralExplorer {
 
-    public static void main(String[] args) {
+    /**
+     * Opens the GUI, or, if the first argument is -batch, runs the remaining
+     * arguments through {@link BatchRunner#main(String[])}.
+     *
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("-batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         MainFrame mf = new MainFrame();
         mf.setVisible(true);
         mf.drawPanel.zoomToFit();
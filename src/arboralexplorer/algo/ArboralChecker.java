@@ -16,67 +16,317 @@
 package arboralexplorer.algo;
 
 import arboralexplorer.Pair;
+import arboralexplorer.data.ArrayGridView;
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import arboralexplorer.data.ViolationList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class ArboralChecker {
 
-    public static boolean isArborallySatisfied(GridSet grid) {
-        // Can be made smarter
-        return getAllAssViolations(grid).isEmpty();
+    /**
+     * The algorithms that can be used to find ASS violations.
+     */
+    public static enum Method {
+        /**
+         * Scans every row between consecutive points. Fast on dense grids,
+         * but takes O(w) time per point on sparse ones.
+         */
+        ROW_SCAN,
+        /**
+         * Keeps the highest point in each column in a segment tree and takes
+         * O((n + k) log w) time for n points and k violations.
+         */
+        SEGMENT_TREE,
+        /**
+         * Splits the grid into horizontal stripes and checks them in parallel
+         * on the common fork/join pool, each with the fastest of the methods
+         * above. Gives the same result as the sequential methods.
+         */
+        PARALLEL;
+
+        /**
+         * Returns the method that is expected to be fastest for the given
+         * grid: the segment tree when there are few points per row, and a
+         * row scan for array views.
+         *
+         * @param grid
+         * @return
+         */
+        public static Method forGrid(GridView grid) {
+            // PARALLEL is never picked automatically, as it uses all cores
+            if (grid instanceof ArrayGridView) {
+                // Its points are not counted, so counting them would take as
+                // long as a row scan, which suits arrays anyway
+                return ROW_SCAN;
+            }
+
+            long cells = (long) grid.getWidth() * grid.getHeight();
+            return (32L * grid.getSize() < cells ? SEGMENT_TREE : ROW_SCAN);
+        }
+    }
+
+    /**
+     * Checks whether the grid is an arborally satisfied set. Stops at the
+     * first violation, without building a list of violations.
+     *
+     * @param grid
+     * @return
+     */
+    public static boolean isArborallySatisfied(GridView grid) {
+        return isArborallySatisfied(grid, Method.forGrid(grid));
+    }
+
+    public static boolean isArborallySatisfied(GridView grid, Method method) {
+        return sweep(grid, null, 1, method) == 0;
     }
 
     public static boolean isArborallySatisfied(boolean[][] grid) {
-        // Can be made smarter
-        return getAllAssViolations(grid).isEmpty();
+        return isArborallySatisfied(new ArrayGridView(grid), Method.ROW_SCAN);
+    }
+
+    /**
+     * Returns the number of ASS violations in the grid, without building a
+     * list of them.
+     *
+     * @param grid
+     * @return
+     */
+    public static int countAssViolations(GridView grid) {
+        return countAssViolations(grid, Method.forGrid(grid));
+    }
+
+    public static int countAssViolations(GridView grid, Method method) {
+        return sweep(grid, null, Integer.MAX_VALUE, method);
+    }
+
+    public static int countAssViolations(boolean[][] grid) {
+        return countAssViolations(new ArrayGridView(grid), Method.ROW_SCAN);
+    }
+
+    public static ViolationList getAllAssViolations(GridView grid) {
+        return getAllAssViolations(grid, Method.forGrid(grid));
+    }
+
+    /**
+     * Returns a list of all ASS violations in the grid, found with the given
+     * method. All methods report the violations in the same order.
+     *
+     * @param grid
+     * @param method
+     * @return
+     */
+    public static ViolationList getAllAssViolations(GridView grid, Method method) {
+        ViolationList violations = new ViolationList();
+        sweep(grid, violations, Integer.MAX_VALUE, method);
+        return violations;
     }
 
-    public static List<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> getAllAssViolations(GridSet grid) {
-        return getAllAssViolations(grid.getGridSet());
+    public static ViolationList getAllAssViolations(boolean[][] grid) {
+        return getAllAssViolations(new ArrayGridView(grid), Method.ROW_SCAN);
     }
 
-    public static List<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> getAllAssViolations(boolean[][] grid) {
-        List<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> violations = new ArrayList<>();
+    private static int sweep(GridView grid, ViolationList violations, int limit, Method method) {
+        switch (method) {
+            case ROW_SCAN:
+                return sweep(grid, newFrontier(grid.getWidth()), 0, grid.getHeight(), violations, limit);
+            case SEGMENT_TREE:
+                return SweepLineChecker.sweep(grid, newFrontier(grid.getWidth()), 0, grid.getHeight(), violations, limit);
+            case PARALLEL:
+                return ParallelChecker.sweep(grid, violations, limit);
+            default:
+                throw new IllegalArgumentException("Unknown method: " + method);
+        }
+    }
 
-        int width = grid.length, height = grid[0].length;
+    /**
+     * Returns the highest point in each column before the sweep starts: none.
+     */
+    private static int[] newFrontier(int width) {
         int[] lowestPoint = new int[width];
         Arrays.fill(lowestPoint, -1);
+        return lowestPoint;
+    }
 
-        for (int j = 0; j < height; j++) {
-            for (int i = 0; i < width; i++) {
-                if (grid[i][j]) {
-                    // Scan left
-                    int lowest = lowestPoint[i];
-
-                    if (lowest != j + 1) {
-                        for (int k = i - 1; k >= 0 && !grid[k][j]; k--) {
-                            if (lowestPoint[k] > lowest) {
-                                violations.add(new Pair<>(new Pair<>(k, lowestPoint[k]), new Pair<>(i, j)));
-                                lowest = lowestPoint[k];
+    /**
+     * Sweeps the rows fromRow to toRow - 1 from bottom to top, keeping track
+     * of the highest point seen so far in each column, and pairs every point
+     * with the points that are visible from it in the rows below. lowestPoint
+     * holds the highest point in each column below fromRow (or -1), and is
+     * updated as the sweep goes. Adds the violations it finds to violations if
+     * that is not null, and stops as soon as limit violations have been found.
+     *
+     * @return the number of violations found.
+     */
+    static int sweep(GridView grid, int[] lowestPoint, int fromRow, int toRow, ViolationList violations, int limit) {
+        int count = 0;
+        int width = grid.getWidth();
+
+        for (int j = fromRow; j < toRow; j++) {
+            int previous = -1;
+            int i = grid.nextPointInRow(0, j);
+
+            while (i >= 0) {
+                int next = grid.nextPointInRow(i + 1, j);
+
+                // Scan left, up to the previous point in this row
+                int lowest = lowestPoint[i];
+
+                if (lowest != j + 1) {
+                    for (int k = i - 1; k > previous; k--) {
+                        if (lowestPoint[k] > lowest) {
+                            if (violations != null) {
+                                violations.add(k, lowestPoint[k], i, j);
+                            }
+                            if (++count == limit) {
+                                return count;
                             }
+                            lowest = lowestPoint[k];
                         }
                     }
+                }
 
-                    // Scan right
-                    lowest = lowestPoint[i];
+                // Scan right, up to the next point in this row
+                lowest = lowestPoint[i];
+                int end = (next < 0 ? width : next);
 
-                    if (lowest != j + 1) {
-                        for (int k = i + 1; k < width && !grid[k][j]; k++) {
-                            if (lowestPoint[k] > lowest) {
-                                violations.add(new Pair<>(new Pair<>(i, j), new Pair<>(k, lowestPoint[k])));
-                                lowest = lowestPoint[k];
+                if (lowest != j + 1) {
+                    for (int k = i + 1; k < end; k++) {
+                        if (lowestPoint[k] > lowest) {
+                            if (violations != null) {
+                                violations.add(i, j, k, lowestPoint[k]);
+                            }
+                            if (++count == limit) {
+                                return count;
                             }
+                            lowest = lowestPoint[k];
                         }
                     }
-
-                    lowestPoint[i] = j;
                 }
+
+                lowestPoint[i] = j;
+                previous = i;
+                i = next;
             }
         }
 
-        return violations;
+        return count;
+    }
+
+    /**
+     * Updates the violations of a grid after the point (x, y) was added to it.
+     * Violations whose rectangle contains the new point are removed, and the
+     * new point is paired with each point in its four staircases.
+     *
+     * @param grid the grid, which already contains (x, y)
+     * @param violations all violations of the grid before (x, y) was added
+     * @param x
+     * @param y
+     */
+    public static void pointAdded(GridView grid, ViolationList violations, int x, int y) {
+        violations.removeContaining(x, y);
+
+        for (int dx = -1; dx <= 1; dx += 2) {
+            for (int dy = -1; dy <= 1; dy += 2) {
+                addStaircase(grid, violations, x, y, dx, dy, x + dx, y + dy);
+            }
+        }
+    }
+
+    /**
+     * Updates the violations of a grid after the point (x, y) was removed from
+     * it. Violations with (x, y) as a corner are removed. A new violation has
+     * an empty rectangle containing (x, y), so its lower corner lies in one of
+     * the lower staircases of (x, y) or is its nearest neighbour below, to the
+     * left or to the right. From each such corner we look upwards for partners
+     * on the other side of (x, y).
+     *
+     * @param grid the grid, which no longer contains (x, y)
+     * @param violations all violations of the grid before (x, y) was removed
+     * @param x
+     * @param y
+     */
+    public static void pointRemoved(GridView grid, ViolationList violations, int x, int y) {
+        violations.removeWithCorner(x, y);
+        addViolationsThrough(grid, violations, x, y);
+    }
+
+    /**
+     * Adds all violations of the grid whose rectangle contains the empty cell
+     * (x, y). See {@link #pointRemoved(GridView, ViolationList, int, int)}.
+     */
+    private static void addViolationsThrough(GridView grid, ViolationList violations, int x, int y) {
+        // Pairs of (x, y) with the points in its lower staircases
+        ViolationList below = new ViolationList();
+        addStaircase(grid, below, x, y, -1, -1, x - 1, y - 1);
+        addStaircase(grid, below, x, y, 1, -1, x + 1, y - 1);
+
+        for (ViolationList.Cursor c = below.cursor(); c.next();) {
+            if (c.x1() < x) {
+                addStaircase(grid, violations, c.x1(), c.y1(), 1, 1, x, y);
+            } else {
+                addStaircase(grid, violations, c.x2(), c.y2(), -1, 1, x, y);
+            }
+        }
+
+        int down = grid.previousPointInColumn(x, y - 1);
+
+        if (down >= 0) {
+            addStaircase(grid, violations, x, down, -1, 1, x, y);
+            addStaircase(grid, violations, x, down, 1, 1, x, y);
+        }
+
+        int left = grid.previousPointInRow(x - 1, y);
+
+        if (left >= 0) {
+            addStaircase(grid, violations, left, y, 1, 1, x, y);
+        }
+
+        int right = grid.nextPointInRow(x + 1, y);
+
+        if (right >= 0) {
+            addStaircase(grid, violations, right, y, -1, 1, x, y);
+        }
+    }
+
+    /**
+     * Adds a violation for every point q in the quadrant of (x, y) given by
+     * the signs of dx and dy, such that the closed rectangle spanned by (x, y)
+     * and q contains no other points. Only points q that are at or beyond
+     * column targetX and row targetY (seen from (x, y)) are reported.
+     */
+    private static void addStaircase(GridView grid, ViolationList violations, int x, int y, int dx, int dy, int targetX, int targetY) {
+        // Columns at or beyond bound are blocked by a point we have already seen
+        int bound = (dx > 0 ? grid.nextPointInRow(x + 1, y) : grid.previousPointInRow(x - 1, y));
+
+        if (bound < 0) {
+            bound = (dx > 0 ? grid.getWidth() : -1);
+        }
+
+        // Rows at or beyond end are blocked by the next point in column x
+        int end = (dy > 0 ? grid.nextPointInColumn(x, y + 1) : grid.previousPointInColumn(x, y - 1));
+
+        if (end < 0) {
+            end = (dy > 0 ? grid.getHeight() : -1);
+        }
+
+        for (int j = y + dy; j != end && (bound - targetX) * dx > 0; j += dy) {
+            int i = (dx > 0 ? grid.nextPointInRow(x + 1, j) : grid.previousPointInRow(x - 1, j));
+
+            if (i >= 0 && (bound - i) * dx > 0) {
+                if ((i - targetX) * dx >= 0 && (j - targetY) * dy >= 0) {
+                    if (i < x) {
+                        violations.add(i, j, x, y);
+                    } else {
+                        violations.add(x, y, i, j);
+                    }
+                }
+
+                bound = i;
+            }
+        }
     }
 
     /**
@@ -87,8 +337,8 @@ public class ArboralChecker {
      * @param grid
      * @return
      */
-    public static List<Pair<Integer, Integer>> getAllSubCriticalPoints(GridSet grid) {
-        return getAllSubCriticalPoints(grid.getGridSet());
+    public static List<Pair<Integer, Integer>> getAllSubCriticalPoints(boolean[][] grid) {
+        return getAllSubCriticalPoints(new ArrayGridView(grid));
     }
 
     /**
@@ -99,14 +349,14 @@ public class ArboralChecker {
      * @param grid
      * @return
      */
-    public static List<Pair<Integer, Integer>> getAllSubCriticalPoints(boolean[][] grid) {
+    public static List<Pair<Integer, Integer>> getAllSubCriticalPoints(GridView grid) {
         List<Pair<Integer, Integer>> subCritical = new ArrayList<>();
 
-        int[][] criticality = computeCriticality(getNeighbourlyMatrix(grid));
+        CriticalityIndex criticality = new CriticalityIndex(grid);
         
-        for (int i = 0; i < grid.length; i++) {
-            for (int j = 0; j < grid[0].length; j++) {
-                if (criticality[i][j] == 0) {
+        for (int i = 0; i < grid.getWidth(); i++) {
+            for (int j = 0; j < grid.getHeight(); j++) {
+                if (criticality.getCriticality(i, j) == 0) {
                     subCritical.add(new Pair<>(i, j));
                 }
             }
@@ -115,88 +365,156 @@ public class ArboralChecker {
         return subCritical;
     }
 
-    private static NeighbourlyPoint[][] getNeighbourlyMatrix(boolean[][] grid) {
-        int width = grid.length, height = grid[0].length;
-        NeighbourlyPoint[][] matrix = new NeighbourlyPoint[width][height];
+    /**
+     * Returns the change in the number of violations when the point (x, y) is
+     * removed from the grid, or 0 if there is no point at (x, y).
+     *
+     * @param grid
+     * @param x
+     * @param y
+     * @return
+     */
+    public static int computeCriticality(GridSet grid, int x, int y) {
+        if (!grid.hasPoint(x, y)) {
+            return 0;
+        }
 
-        int[] lowestPoint = new int[width];
-        Arrays.fill(lowestPoint, -1);
+        int lost = 0;
 
-        for (int j = 0; j < height; j++) {
-            int leftNeighbour = -1;
+        for (ViolationList.Cursor c = grid.getViolations().cursor(); c.next();) {
+            if ((c.x1() == x && c.y1() == y) || (c.x2() == x && c.y2() == y)) {
+                lost++;
+            }
+        }
 
-            for (int i = 0; i < width; i++) {
-                if (grid[i][j]) {
-                    matrix[i][j] = new NeighbourlyPoint(i, j);
+        ViolationList created = new ViolationList();
+        addViolationsThrough(new WithoutPoint(grid, x, y), created, x, y);
 
-                    if (leftNeighbour > -1) {
-                        matrix[i][j].left = matrix[leftNeighbour][j];
-                        matrix[leftNeighbour][j].right = matrix[i][j];
-                    }
+        return created.size() - lost;
+    }
 
-                    if (lowestPoint[i] > -1) {
-                        matrix[i][j].top = matrix[i][lowestPoint[i]];
-                        matrix[i][lowestPoint[i]].bottom = matrix[i][j];
-                    }
+    /**
+     * Returns, for every point (i, j) of the grid, the value of
+     * computeCriticality(grid, i, j) in result[i][j]. Cells without a point
+     * get 0. The violations lost by each point are counted in a single pass
+     * over the violations of the grid, and the violations created by its
+     * removal are found locally around it.
+     *
+     * @param grid
+     * @return
+     */
+    public static int[][] computeCriticalityMap(GridSet grid) {
+        int[][] criticality = new int[grid.getWidth()][grid.getHeight()];
 
-                    lowestPoint[i] = j;
-                    leftNeighbour = i;
-                }
+        for (ViolationList.Cursor c = grid.getViolations().cursor(); c.next();) {
+            criticality[c.x1()][c.y1()]--;
+            criticality[c.x2()][c.y2()]--;
+        }
+
+        ViolationList created = new ViolationList();
+
+        for (int j = 0; j < grid.getHeight(); j++) {
+            for (int i = grid.nextPointInRow(0, j); i >= 0; i = grid.nextPointInRow(i + 1, j)) {
+                created.clear();
+                addViolationsThrough(new WithoutPoint(grid, i, j), created, i, j);
+                criticality[i][j] += created.size();
             }
         }
 
-        return matrix;
+        return criticality;
     }
 
-    private static int[][] computeCriticality(NeighbourlyPoint[][] grid) {
-        int width = grid.length, height = grid[0].length;
-        int[][] matrix = new int[width][height];
+    /**
+     * A view of a grid with one of its points hidden, used to look at the
+     * effect of removing that point without copying the grid.
+     */
+    private static class WithoutPoint implements GridView {
 
-        for (int j = 0; j < height; j++) {
-            for (int i = 0; i < width; i++) {
-                NeighbourlyPoint p = grid[i][j];
+        private final GridView grid;
+        private final int x, y;
 
-                if (grid[i][j] != null) {
-                    // top left
-                    if (p.left != null && p.top != null && (p.left.top == null || p.left.top.y < p.top.y)) {
-                        matrix[i][j]++;
-                    }
-                    // top right
-                    if (p.right != null && p.top != null && (p.right.top == null || p.right.top.y < p.top.y)) {
-                        matrix[i][j]++;
-                    }
-                    // bottom left
-                    if (p.left != null && p.bottom != null && (p.left.bottom == null || p.left.bottom.y > p.bottom.y)) {
-                        matrix[i][j]++;
-                    }
-                    // bottom right
-                    if (p.right != null && p.bottom != null && (p.right.bottom == null || p.right.bottom.y > p.bottom.y)) {
-                        matrix[i][j]++;
-                    }
-                } else {
-                    matrix[i][j] = -1;
-                }
-            }
+        WithoutPoint(GridView grid, int x, int y) {
+            this.grid = grid;
+            this.x = x;
+            this.y = y;
         }
 
-        return matrix;
-    }
+        @Override
+        public int getWidth() {
+            return grid.getWidth();
+        }
 
-    public static int computeCriticality(GridSet grid, int x, int y) {
-        int currentViolations = grid.getViolations().size();
-        GridSet newGrid = new GridSet(grid);
-        newGrid.removePoint(x, y);
-        return newGrid.getViolations().size() - currentViolations;
-    }
+        @Override
+        public int getHeight() {
+            return grid.getHeight();
+        }
 
-    private static class NeighbourlyPoint {
+        @Override
+        public boolean hasPoint(int i, int j) {
+            return (i != x || j != y) && grid.hasPoint(i, j);
+        }
 
-        int x, y;
-        NeighbourlyPoint left, right, bottom, top;
+        @Override
+        public boolean isGroundSet(int i, int j) {
+            return (i != x || j != y) && grid.isGroundSet(i, j);
+        }
 
-        public NeighbourlyPoint(int x, int y) {
-            this.x = x;
-            this.y = y;
+        @Override
+        public int nextPointInRow(int i, int j) {
+            int next = grid.nextPointInRow(i, j);
+            return (next == x && j == y ? grid.nextPointInRow(x + 1, j) : next);
+        }
+
+        @Override
+        public int previousPointInRow(int i, int j) {
+            int previous = grid.previousPointInRow(i, j);
+            return (previous == x && j == y ? grid.previousPointInRow(x - 1, j) : previous);
+        }
+
+        @Override
+        public int nextPointInColumn(int i, int j) {
+            int next = grid.nextPointInColumn(i, j);
+            return (next == y && i == x ? grid.nextPointInColumn(i, y + 1) : next);
+        }
+
+        @Override
+        public int previousPointInColumn(int i, int j) {
+            int previous = grid.previousPointInColumn(i, j);
+            return (previous == y && i == x ? grid.previousPointInColumn(i, y - 1) : previous);
+        }
+
+        @Override
+        public int nextGroundSetPointInRow(int i, int j) {
+            int next = grid.nextGroundSetPointInRow(i, j);
+            return (next == x && j == y ? grid.nextGroundSetPointInRow(x + 1, j) : next);
+        }
+
+        @Override
+        public int previousGroundSetPointInRow(int i, int j) {
+            int previous = grid.previousGroundSetPointInRow(i, j);
+            return (previous == x && j == y ? grid.previousGroundSetPointInRow(x - 1, j) : previous);
+        }
+
+        @Override
+        public int nextGroundSetPointInColumn(int i, int j) {
+            int next = grid.nextGroundSetPointInColumn(i, j);
+            return (next == y && i == x ? grid.nextGroundSetPointInColumn(i, y + 1) : next);
+        }
+
+        @Override
+        public int previousGroundSetPointInColumn(int i, int j) {
+            int previous = grid.previousGroundSetPointInColumn(i, j);
+            return (previous == y && i == x ? grid.previousGroundSetPointInColumn(i, y - 1) : previous);
+        }
+
+        @Override
+        public int getSize() {
+            return grid.getSize() - (grid.hasPoint(x, y) ? 1 : 0);
+        }
+
+        @Override
+        public int getGroundSetSize() {
+            return grid.getGroundSetSize() - (grid.isGroundSet(x, y) ? 1 : 0);
         }
     }
 }
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.algo.upperbound.GreedyASS;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Splits the rows of a grid into windows whose ground set points use disjoint
+ * ranges of columns, so that each window can be solved on its own.
+ *
+ * The blocks are solved concurrently. An ASS restricted to a block is an ASS
+ * of that block, so the lower bounds of the blocks add up to a lower bound for
+ * the whole grid. The union of ASSs of the blocks can still have violations
+ * between blocks. These are removed by Greedy, with the union as its ground
+ * set.
+ */
+public class BlockDecomposition {
+
+    /**
+     * A window of consecutive rows, together with the range of columns that
+     * its ground set points use.
+     */
+    public static class Block {
+
+        private final int firstRow, endRow;
+        private final int firstColumn, endColumn;
+        private final GridSet grid;
+
+        private Block(GridView original, int firstRow, int endRow, int firstColumn, int endColumn) {
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+            this.firstColumn = firstColumn;
+            this.endColumn = endColumn;
+
+            int width = endColumn - firstColumn;
+            int height = endRow - firstRow;
+            grid = new GridSet(width, height, GridSet.Storage.forSize(width, height));
+
+            for (int j = firstRow; j < endRow; j++) {
+                for (int i = original.nextGroundSetPointInRow(firstColumn, j); i >= 0 && i < endColumn; i = original.nextGroundSetPointInRow(i + 1, j)) {
+                    grid.addToGroundSet(i - firstColumn, j - firstRow);
+                }
+            }
+        }
+
+        public int getFirstRow() {
+            return firstRow;
+        }
+
+        /**
+         * Returns the first row after this block.
+         *
+         * @return
+         */
+        public int getEndRow() {
+            return endRow;
+        }
+
+        public int getFirstColumn() {
+            return firstColumn;
+        }
+
+        /**
+         * Returns the first column after this block.
+         *
+         * @return
+         */
+        public int getEndColumn() {
+            return endColumn;
+        }
+
+        /**
+         * Returns the ground set points of this block, in a grid of its own.
+         *
+         * @return
+         */
+        public GridSet getGrid() {
+            return grid;
+        }
+
+        /**
+         * Adds the points of the given solution of this block to the grid, as
+         * ground set points if allGround is true.
+         */
+        private void addTo(GridSet target, GridView solution, boolean allGround) {
+            if (solution.getWidth() != grid.getWidth() || solution.getHeight() != grid.getHeight()) {
+                throw new IllegalArgumentException("The solution does not have the size of the block.");
+            }
+
+            for (int j = 0; j < solution.getHeight(); j++) {
+                for (int i = solution.nextPointInRow(0, j); i >= 0; i = solution.nextPointInRow(i + 1, j)) {
+                    if (allGround || solution.isGroundSet(i, j)) {
+                        target.addToGroundSet(firstColumn + i, firstRow + j);
+                    } else {
+                        target.addPoint(firstColumn + i, firstRow + j);
+                    }
+                }
+            }
+        }
+    }
+
+    private final GridView original;
+    private final List<Block> blocks;
+
+    /**
+     * Splits the given grid into as many blocks as it can. Every block is a
+     * window of consecutive rows, and the ranges of columns between the
+     * leftmost and rightmost ground set point of the blocks are disjoint.
+     * Empty rows join the block below them, or the first block.
+     *
+     * @param grid
+     */
+    public BlockDecomposition(GridView grid) {
+        this.original = grid;
+
+        // Each window holds its first row, end row, first column and end column
+        Deque<int[]> windows = new ArrayDeque<>();
+
+        for (int j = 0; j < grid.getHeight(); j++) {
+            int first = grid.nextGroundSetPointInRow(0, j);
+
+            if (first < 0) {
+                if (windows.isEmpty()) {
+                    continue;
+                }
+
+                windows.peekLast()[1] = j + 1;
+                continue;
+            }
+
+            int[] window = {windows.isEmpty() ? 0 : j, j + 1, first, grid.previousGroundSetPointInRow(grid.getWidth() - 1, j) + 1};
+
+            // Merge the new window with every window since the first one whose
+            // columns overlap, until it overlaps none of them
+            while (true) {
+                int merge = 0;
+                int count = 0;
+
+                for (int[] w : windows) {
+                    count++;
+
+                    if (w[2] < window[3] && window[2] < w[3]) {
+                        merge = windows.size() - count + 1;
+                        break;
+                    }
+                }
+
+                if (merge == 0) {
+                    break;
+                }
+
+                for (int k = 0; k < merge; k++) {
+                    int[] w = windows.removeLast();
+                    window[0] = w[0];
+                    window[2] = Math.min(window[2], w[2]);
+                    window[3] = Math.max(window[3], w[3]);
+                }
+            }
+
+            windows.addLast(window);
+        }
+
+        List<Block> blockList = new ArrayList<>(windows.size());
+
+        for (int[] w : windows) {
+            blockList.add(new Block(grid, w[0], w[1], w[2], w[3]));
+        }
+
+        blocks = Collections.unmodifiableList(blockList);
+    }
+
+    /**
+     * Solves the given grid by solving its blocks concurrently on the common
+     * fork/join pool.
+     *
+     * @param grid
+     * @param solver
+     * @param lowerBound whether the solver computes a lower bound, rather than
+     * an ASS
+     * @param context
+     * @return
+     * @throws Exception
+     * @see #solve(GridView, Solver, boolean, SolverContext, Executor)
+     */
+    public static GridSet solve(GridView grid, Solver solver, boolean lowerBound, SolverContext context) throws Exception {
+        return solve(grid, solver, lowerBound, context, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Solves the given grid by solving its blocks concurrently on the given
+     * executor. The result of a lower bound is the union of the results of
+     * the blocks, so that its number of added points is the sum of theirs.
+     * The result of an upper bound is the ASS that Greedy computes with the
+     * union of the block solutions as its ground set. A grid with only one
+     * block is solved as a whole.
+     *
+     * @param grid
+     * @param solver
+     * @param lowerBound whether the solver computes a lower bound, rather than
+     * an ASS
+     * @param context
+     * @param executor
+     * @return
+     * @throws Exception
+     */
+    public static GridSet solve(GridView grid, Solver solver, boolean lowerBound, SolverContext context, Executor executor) throws Exception {
+        BlockDecomposition decomposition = new BlockDecomposition(grid);
+        List<Block> blocks = decomposition.getBlocks();
+
+        if (blocks.size() <= 1) {
+            return solver.solve(grid, context);
+        }
+
+        SolverContext blockContext = new SolverContext(context.getCancellationToken());
+        List<CompletableFuture<GridSet>> solutions = new ArrayList<>(blocks.size());
+
+        for (Block block : blocks) {
+            solutions.add(solver.submit(block.getGrid(), blockContext, executor));
+        }
+
+        GridSet union = GridSet.copyGroundSet(grid);
+
+        for (int k = 0; k < blocks.size(); k++) {
+            GridSet solution;
+
+            try {
+                solution = solutions.get(k).get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof Exception) {
+                    throw (Exception) ex.getCause();
+                } else {
+                    throw ex;
+                }
+            }
+
+            blocks.get(k).addTo(union, solution, !lowerBound);
+            context.setProgress((100 * (k + 1)) / blocks.size());
+        }
+
+        if (lowerBound) {
+            return union;
+        }
+
+        // Remove the violations between blocks
+        GridSet stitched = GreedyASS.solve(union);
+        GridSet result = GridSet.copyGroundSet(grid);
+
+        for (int j = 0; j < stitched.getHeight(); j++) {
+            for (int i = stitched.nextPointInRow(0, j); i >= 0; i = stitched.nextPointInRow(i + 1, j)) {
+                result.addPoint(i, j);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a solver that solves the blocks of its input concurrently.
+     *
+     * @param solver
+     * @param lowerBound whether the solver computes a lower bound, rather than
+     * an ASS
+     * @return
+     */
+    public static Solver decomposing(Solver solver, boolean lowerBound) {
+        return (grid, context) -> solve(grid, solver, lowerBound, context);
+    }
+
+    public GridView getOriginalGrid() {
+        return original;
+    }
+
+    /**
+     * Returns the blocks, from the bottom row up.
+     *
+     * @return
+     */
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+}
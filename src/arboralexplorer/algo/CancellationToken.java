@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells a {@link Solver} to stop early. A token is cancelled when
+ * {@link #cancel()} is called, or when its time limit, if any, runs out.
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled = false;
+    private final boolean timed;
+    private final long deadline;
+
+    /**
+     * Creates a token without a time limit.
+     */
+    public CancellationToken() {
+        timed = false;
+        deadline = 0;
+    }
+
+    private CancellationToken(long deadline) {
+        timed = true;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Creates a token that cancels itself once the given time has passed.
+     *
+     * @param timeout
+     * @param unit
+     * @return
+     */
+    public static CancellationToken withTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The timeout must be non-negative.");
+        }
+
+        return new CancellationToken(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (timed && System.nanoTime() - deadline >= 0);
+    }
+}
@@ -15,9 +15,11 @@
  */
 package arboralexplorer.algo;
 
-import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import jCMPL.Cmpl;
 import jCMPL.CmplException;
+import jCMPL.CmplParameter;
+import jCMPL.CmplSet;
 import jCMPL.CmplSolElement;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -26,22 +28,47 @@ public class CmplUtils {
 
     private static final Pattern VAR_NAME = Pattern.compile("x\\[(\\d+),(\\d+)\\]");
     
-    public static int[][] getGroundSetPoints(GridSet grid) {
+    public static int[][] getGroundSetPoints(GridView grid) {
         int[][] groundSetPoints = new int[grid.getGroundSetSize()][2];
         int pointIndex = 0;
         
         for (int i = 0; i < grid.getWidth(); i++) {
-            for (int j = 0; j < grid.getHeight(); j++) {
-                if (grid.isGroundSet(i, j)) {
-                    groundSetPoints[pointIndex] = new int[]{i + 1, j + 1};
-                    pointIndex++;
-                }
+            for (int j = grid.nextGroundSetPointInColumn(i, 0); j >= 0; j = grid.nextGroundSetPointInColumn(i, j + 1)) {
+                groundSetPoints[pointIndex] = new int[]{i + 1, j + 1};
+                pointIndex++;
             }
         }
         
         return groundSetPoints;
     }
 
+    /**
+     * Creates a model from the given file, with the parameters n and m set to
+     * the width and height of the grid, and the set ground to its ground set
+     * points.
+     *
+     * @param file
+     * @param grid
+     * @return
+     * @throws CmplException
+     */
+    public static Cmpl createModel(String file, GridView grid) throws CmplException {
+        CmplSet ground = new CmplSet("ground", 2);
+        ground.setValues(getGroundSetPoints(grid));
+
+        CmplParameter n = new CmplParameter("n");
+        n.setValues(grid.getWidth());
+
+        CmplParameter m = new CmplParameter("m");
+        m.setValues(grid.getHeight());
+
+        Cmpl model = new Cmpl(file);
+        model.setSets(ground);
+        model.setParameters(n, m);
+
+        return model;
+    }
+
     public static boolean[][] extractSolution(Cmpl model, int width, int height) throws CmplException {
         boolean[][] solution = new boolean[width][height];
         
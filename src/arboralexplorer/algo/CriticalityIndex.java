@@ -0,0 +1,277 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.data.GridView;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Keeps track of the criticality of every point in an ASS while points are
+ * removed from it. The criticality of a point is the number of violations its
+ * removal would create. Each point is linked to its nearest neighbours to the
+ * left, right, top and bottom, and its criticality only depends on these links
+ * and on the vertical links of its left and right neighbours. Removing a point
+ * therefore only changes the criticality of at most eight other points.
+ *
+ * The index also keeps the set of subcritical points (criticality 0) that are
+ * not in the ground set, which supports picking a uniformly random one in
+ * constant time.
+ */
+public class CriticalityIndex {
+
+    private static final int NONE = -1;
+
+    private final int width, height;
+    private final BitSet ground;
+    // For the point in cell c = i * height + j: the column of its left and right
+    // neighbours, the row of its top and bottom neighbours, or NONE
+    private final int[] left, right, top, bottom;
+    private final int[] criticality; // NONE for cells without a point
+    // subCritical[0..subCriticalCount) are the cells of the subcritical
+    // non-ground points, position[c] is the index of c in there, or NONE
+    private final int[] subCritical, position;
+    private int subCriticalCount = 0;
+
+    /**
+     * Builds the index for the points and ground set of the given grid.
+     *
+     * @param grid
+     */
+    public CriticalityIndex(GridView grid) {
+        width = grid.getWidth();
+        height = grid.getHeight();
+        ground = new BitSet(width * height);
+
+        int cells = width * height;
+        left = new int[cells];
+        right = new int[cells];
+        top = new int[cells];
+        bottom = new int[cells];
+        criticality = new int[cells];
+        subCritical = new int[cells];
+        position = new int[cells];
+
+        Arrays.fill(criticality, NONE);
+        Arrays.fill(position, NONE);
+
+        int[] lowestPoint = new int[width];
+        Arrays.fill(lowestPoint, NONE);
+
+        for (int j = 0; j < height; j++) {
+            int leftNeighbour = NONE;
+
+            for (int i = grid.nextPointInRow(0, j); i >= 0; i = grid.nextPointInRow(i + 1, j)) {
+                int c = cell(i, j);
+                left[c] = leftNeighbour;
+                right[c] = NONE;
+                top[c] = lowestPoint[i];
+                bottom[c] = NONE;
+
+                if (leftNeighbour != NONE) {
+                    right[cell(leftNeighbour, j)] = i;
+                }
+                if (lowestPoint[i] != NONE) {
+                    bottom[cell(i, lowestPoint[i])] = j;
+                }
+                if (grid.isGroundSet(i, j)) {
+                    ground.set(c);
+                }
+
+                lowestPoint[i] = j;
+                leftNeighbour = i;
+            }
+        }
+
+        for (int j = 0; j < height; j++) {
+            for (int i = grid.nextPointInRow(0, j); i >= 0; i = grid.nextPointInRow(i + 1, j)) {
+                update(i, j);
+            }
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of violations that removing (i, j) would create, or
+     * -1 if there is no point at (i, j).
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    public int getCriticality(int i, int j) {
+        return criticality[cell(i, j)];
+    }
+
+    /**
+     * Removes the point (i, j) and updates the criticality of the points
+     * around it.
+     *
+     * @param i
+     * @param j
+     * @throws IllegalArgumentException if there is no point at (i, j).
+     */
+    public void removePoint(int i, int j) {
+        int c = cell(i, j);
+
+        if (criticality[c] == NONE) {
+            throw new IllegalArgumentException("There is no point at (" + i + ", " + j + ").");
+        }
+
+        int l = left[c], r = right[c], t = top[c], b = bottom[c];
+
+        // Unlink the point
+        if (l != NONE) {
+            right[cell(l, j)] = r;
+        }
+        if (r != NONE) {
+            left[cell(r, j)] = l;
+        }
+        if (t != NONE) {
+            bottom[cell(i, t)] = b;
+        }
+        if (b != NONE) {
+            top[cell(i, b)] = t;
+        }
+
+        criticality[c] = NONE;
+        setSubCritical(c, false);
+        ground.clear(c);
+
+        // Update the points whose links changed, and the horizontal neighbours
+        // of the points whose vertical links changed
+        if (l != NONE) {
+            update(l, j);
+        }
+        if (r != NONE) {
+            update(r, j);
+        }
+        if (t != NONE) {
+            updateWithNeighbours(i, t);
+        }
+        if (b != NONE) {
+            updateWithNeighbours(i, b);
+        }
+    }
+
+    /**
+     * Returns the number of subcritical points that are not in the ground set.
+     *
+     * @return
+     */
+    public int getSubCriticalCount() {
+        return subCriticalCount;
+    }
+
+    /**
+     * Returns the column of the subcritical non-ground point with the given
+     * index, where 0 <= index < getSubCriticalCount(). The order of these
+     * points changes as points are removed.
+     *
+     * @param index
+     * @return
+     */
+    public int getSubCriticalColumn(int index) {
+        return subCritical[index] / height;
+    }
+
+    /**
+     * Returns the row of the subcritical non-ground point with the given
+     * index, where 0 <= index < getSubCriticalCount().
+     *
+     * @param index
+     * @return
+     */
+    public int getSubCriticalRow(int index) {
+        return subCritical[index] % height;
+    }
+
+    private int cell(int i, int j) {
+        return i * height + j;
+    }
+
+    private void updateWithNeighbours(int i, int j) {
+        int c = cell(i, j);
+
+        update(i, j);
+
+        if (left[c] != NONE) {
+            update(left[c], j);
+        }
+        if (right[c] != NONE) {
+            update(right[c], j);
+        }
+    }
+
+    /**
+     * Recomputes the criticality of the point (i, j) from its links.
+     */
+    private void update(int i, int j) {
+        int c = cell(i, j);
+        int l = left[c], r = right[c], t = top[c], b = bottom[c];
+        int count = 0;
+
+        if (l != NONE) {
+            int lc = cell(l, j);
+
+            // top left
+            if (t != NONE && (top[lc] == NONE || top[lc] < t)) {
+                count++;
+            }
+            // bottom left
+            if (b != NONE && (bottom[lc] == NONE || bottom[lc] > b)) {
+                count++;
+            }
+        }
+        if (r != NONE) {
+            int rc = cell(r, j);
+
+            // top right
+            if (t != NONE && (top[rc] == NONE || top[rc] < t)) {
+                count++;
+            }
+            // bottom right
+            if (b != NONE && (bottom[rc] == NONE || bottom[rc] > b)) {
+                count++;
+            }
+        }
+
+        criticality[c] = count;
+        setSubCritical(c, count == 0 && !ground.get(c));
+    }
+
+    private void setSubCritical(int c, boolean subCriticalPoint) {
+        if (subCriticalPoint && position[c] == NONE) {
+            position[c] = subCriticalCount;
+            subCritical[subCriticalCount] = c;
+            subCriticalCount++;
+        } else if (!subCriticalPoint && position[c] != NONE) {
+            // Move the last element into the hole
+            int last = subCritical[subCriticalCount - 1];
+            subCritical[position[c]] = last;
+            position[last] = position[c];
+            position[c] = NONE;
+            subCriticalCount--;
+        }
+    }
+}
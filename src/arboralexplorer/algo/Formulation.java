@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.data.GridView;
+import jCMPL.Cmpl;
+import jCMPL.CmplException;
+import jCMPL.CmplSet;
+
+/**
+ * The CMPL models for a smallest ASS, used by the ILP solver and the linear
+ * programming lower bound.
+ */
+public enum Formulation {
+
+    /**
+     * For every rectangle, requires a point on the sides at one of the
+     * corners, if both other corners are points. This has O(n^2 m^2)
+     * constraints of length O(n + m).
+     */
+    FULL("data/ass2.cmpl", "data/assLP.cmpl"),
+    /**
+     * For every pair of columns, sweeps the rows from bottom to top and keeps
+     * track of whether the rows since the last point in the left or right
+     * column are empty between the two columns. This has O(n^2 m) variables
+     * and constraints of constant length.
+     */
+    COMPACT("data/assCompact.cmpl", "data/assCompactLP.cmpl") {
+        @Override
+        void addSets(Cmpl model, GridView grid) throws CmplException {
+            // The auxiliary variables only exist for the row segments
+            // [i1, i2] x {j} that the constraints use
+            int n = grid.getWidth(), m = grid.getHeight();
+            int[][] segments = new int[n * (n + 1) / 2 * m][];
+            int[][] strictSegments = new int[Math.max(1, n * (n - 1) / 2 * m)][];
+            int s = 0, t = 0;
+
+            for (int i1 = 1; i1 <= n; i1++) {
+                for (int i2 = i1; i2 <= n; i2++) {
+                    for (int j = 1; j <= m; j++) {
+                        segments[s++] = new int[]{i1, i2, j};
+
+                        if (i1 < i2) {
+                            strictSegments[t++] = new int[]{i1, i2, j};
+                        }
+                    }
+                }
+            }
+
+            if (t == 0) {
+                // CMPL does not accept empty sets. With a single column, no
+                // constraint uses this segment, so it only adds two variables.
+                strictSegments[0] = new int[]{1, 1, 1};
+            }
+
+            CmplSet segmentSet = new CmplSet("segments", 3);
+            segmentSet.setValues(segments);
+
+            CmplSet strictSegmentSet = new CmplSet("strictSegments", 3);
+            strictSegmentSet.setValues(strictSegments);
+
+            model.setSets(segmentSet, strictSegmentSet);
+        }
+    };
+
+    private final String integerModel;
+    private final String relaxedModel;
+
+    private Formulation(String integerModel, String relaxedModel) {
+        this.integerModel = integerModel;
+        this.relaxedModel = relaxedModel;
+    }
+
+    /**
+     * Returns the model file with binary variables for the points.
+     *
+     * @return
+     */
+    public String getIntegerModel() {
+        return integerModel;
+    }
+
+    /**
+     * Returns the model file with the points relaxed to real variables in
+     * [0, 1].
+     *
+     * @return
+     */
+    public String getRelaxedModel() {
+        return relaxedModel;
+    }
+
+    /**
+     * Creates the model with binary variables for the points of the given
+     * grid, with all its parameters and sets.
+     *
+     * @param grid
+     * @return
+     * @throws CmplException
+     */
+    public Cmpl createIntegerModel(GridView grid) throws CmplException {
+        Cmpl model = CmplUtils.createModel(integerModel, grid);
+        addSets(model, grid);
+        return model;
+    }
+
+    /**
+     * Creates the model with the points of the given grid relaxed to real
+     * variables in [0, 1], with all its parameters and sets.
+     *
+     * @param grid
+     * @return
+     * @throws CmplException
+     */
+    public Cmpl createRelaxedModel(GridView grid) throws CmplException {
+        Cmpl model = CmplUtils.createModel(relaxedModel, grid);
+        addSets(model, grid);
+        return model;
+    }
+
+    /**
+     * Adds the sets that this formulation needs besides the ground set.
+     */
+    void addSets(Cmpl model, GridView grid) throws CmplException {
+    }
+}
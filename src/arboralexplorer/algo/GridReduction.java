@@ -0,0 +1,218 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+
+/**
+ * Removes the rows and columns without ground set points from a grid, so that
+ * it can be solved at a smaller size, and maps solutions of the reduced grid
+ * back to the original one.
+ *
+ * This does not change the number of points that needs to be added. An ASS of
+ * the reduced grid stays an ASS when the empty rows and columns are put back.
+ * Conversely, merging an empty row of an ASS into a neighbouring one gives an
+ * ASS that is no larger: for any two points that are not aligned after the
+ * merge, take the closest points that map to them. Their rectangle contains
+ * another point, which maps into the new rectangle, and not onto either
+ * corner.
+ */
+public class GridReduction {
+
+    private final GridView original;
+    private final int[] columns; // The original column of each reduced column
+    private final int[] rows; // The original row of each reduced row
+    private final GridSet reduced;
+
+    /**
+     * Reduces the given grid.
+     *
+     * @param grid
+     */
+    public GridReduction(GridView grid) {
+        this.original = grid;
+
+        boolean[] usedColumns = new boolean[grid.getWidth()];
+        boolean[] usedRows = new boolean[grid.getHeight()];
+
+        for (int j = 0; j < grid.getHeight(); j++) {
+            for (int i = grid.nextGroundSetPointInRow(0, j); i >= 0; i = grid.nextGroundSetPointInRow(i + 1, j)) {
+                usedColumns[i] = true;
+                usedRows[j] = true;
+            }
+        }
+
+        // A grid needs at least one row and column, even without points
+        usedColumns[0] = usedColumns[0] || !contains(usedColumns);
+        usedRows[0] = usedRows[0] || !contains(usedRows);
+
+        columns = indices(usedColumns);
+        rows = indices(usedRows);
+
+        int[] newColumn = inverse(columns, grid.getWidth());
+        reduced = new GridSet(columns.length, rows.length, GridSet.Storage.forSize(columns.length, rows.length));
+
+        for (int j = 0; j < rows.length; j++) {
+            for (int i = grid.nextGroundSetPointInRow(0, rows[j]); i >= 0; i = grid.nextGroundSetPointInRow(i + 1, rows[j])) {
+                reduced.addToGroundSet(newColumn[i], j);
+            }
+        }
+    }
+
+    /**
+     * Solves the given grid by running the solver on its reduction, and
+     * expanding the result. Intermediate solutions are expanded before they
+     * are published to the context.
+     *
+     * @param grid
+     * @param solver
+     * @param context
+     * @return
+     * @throws Exception
+     */
+    public static GridSet solve(GridView grid, Solver solver, SolverContext context) throws Exception {
+        GridReduction reduction = new GridReduction(grid);
+
+        if (!reduction.isReduced()) {
+            return solver.solve(grid, context);
+        }
+
+        SolverContext reducedContext = new SolverContext(context.getCancellationToken(),
+                context::setProgress, solution -> context.publish(reduction.expand(solution)));
+
+        return reduction.expand(solver.solve(reduction.getReducedGrid(), reducedContext));
+    }
+
+    /**
+     * Returns a solver that runs the given solver on the reduction of its
+     * input.
+     *
+     * @param solver
+     * @return
+     */
+    public static Solver reducing(Solver solver) {
+        return (grid, context) -> solve(grid, solver, context);
+    }
+
+    public GridView getOriginalGrid() {
+        return original;
+    }
+
+    /**
+     * Returns the ground set of the original grid, without the empty rows and
+     * columns.
+     *
+     * @return
+     */
+    public GridSet getReducedGrid() {
+        return reduced;
+    }
+
+    /**
+     * Returns true if the reduced grid is smaller than the original one.
+     *
+     * @return
+     */
+    public boolean isReduced() {
+        return columns.length < original.getWidth() || rows.length < original.getHeight();
+    }
+
+    /**
+     * Maps the given solution of the reduced grid back to the original grid.
+     *
+     * @param solution
+     * @return
+     * @throws IllegalArgumentException if the solution does not have the size
+     * of the reduced grid.
+     * @throws IllegalStateException if the expanded solution does not have the
+     * same number of points as the given one, or has ASS-violations when the
+     * given one does not.
+     */
+    public GridSet expand(GridView solution) {
+        if (solution.getWidth() != columns.length || solution.getHeight() != rows.length) {
+            throw new IllegalArgumentException("The solution does not have the size of the reduced grid.");
+        }
+
+        GridSet expanded = new GridSet(original.getWidth(), original.getHeight(),
+                GridSet.Storage.forSize(original.getWidth(), original.getHeight()));
+        int size = 0;
+
+        for (int j = 0; j < rows.length; j++) {
+            for (int i = solution.nextPointInRow(0, j); i >= 0; i = solution.nextPointInRow(i + 1, j)) {
+                if (solution.isGroundSet(i, j)) {
+                    expanded.addToGroundSet(columns[i], rows[j]);
+                } else {
+                    expanded.addPoint(columns[i], rows[j]);
+                }
+
+                size++;
+            }
+        }
+
+        // Check the cost accounting, and that no violations were introduced
+        if (expanded.getSize() != size || expanded.getGroundSetSize() != reduced.getGroundSetSize()) {
+            throw new IllegalStateException("The expanded solution does not have the same points as the given one.");
+        }
+        if (ArboralChecker.isArborallySatisfied(solution) && !ArboralChecker.isArborallySatisfied(expanded)) {
+            throw new IllegalStateException("The expanded solution has ASS-violations.");
+        }
+
+        return expanded;
+    }
+
+    private static boolean contains(boolean[] used) {
+        for (boolean u : used) {
+            if (u) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int[] indices(boolean[] used) {
+        int count = 0;
+
+        for (boolean u : used) {
+            if (u) {
+                count++;
+            }
+        }
+
+        int[] indices = new int[count];
+        count = 0;
+
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                indices[count] = i;
+                count++;
+            }
+        }
+
+        return indices;
+    }
+
+    private static int[] inverse(int[] indices, int length) {
+        int[] inverse = new int[length];
+
+        for (int k = 0; k < indices.length; k++) {
+            inverse[indices[k]] = k;
+        }
+
+        return inverse;
+    }
+}
@@ -16,9 +16,6 @@
 package arboralexplorer.algo;
 
 import arboralexplorer.data.GridSet;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Random;
 
 public class GridSetGenerator {
@@ -26,39 +23,130 @@ public class GridSetGenerator {
     private static final Random rand = new Random();
 
     public static GridSet randomPermutation(int width, int height) {
+        return randomPermutation(width, height, rand);
+    }
+
+    /**
+     * Returns a random permutation, repeated until the given height is
+     * reached, drawn from the given random number generator.
+     *
+     * @param width
+     * @param height
+     * @param rand
+     * @return
+     */
+    public static GridSet randomPermutation(int width, int height, Random rand) {
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException("size must be positive");
         }
 
-        List<Integer> permutation = new ArrayList<>(width);
+        int[] permutation = new int[width];
 
         for (int i = 0; i < width; i++) {
-            permutation.add(i);
+            permutation[i] = i;
         }
 
-        Collections.shuffle(permutation, rand);
+        // Fisher-Yates shuffle
+        for (int i = width - 1; i > 0; i--) {
+            int k = rand.nextInt(i + 1);
+            int temp = permutation[i];
+            permutation[i] = permutation[k];
+            permutation[k] = temp;
+        }
 
-        boolean[][] newGrid = new boolean[width][height];
+        GridSet newGrid = new GridSet(width, height, GridSet.Storage.forSize(width, height));
 
-        for (int j = 0; j < newGrid[0].length; j++) {
-            newGrid[permutation.get(j % width)][j] = true;
+        for (int j = 0; j < height; j++) {
+            newGrid.addToGroundSet(permutation[j % width], j);
         }
 
-        return new GridSet(newGrid);
+        return newGrid;
     }
 
     public static GridSet random(int width, int height) {
+        return random(width, height, rand);
+    }
+
+    /**
+     * Returns a grid with one uniformly random access per row, drawn from the
+     * given random number generator.
+     *
+     * @param width
+     * @param height
+     * @param rand
+     * @return
+     */
+    public static GridSet random(int width, int height, Random rand) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        GridSet newGrid = new GridSet(width, height, GridSet.Storage.forSize(width, height));
+
+        for (int j = 0; j < height; j++) {
+            newGrid.addToGroundSet(rand.nextInt(width), j);
+        }
+
+        return newGrid;
+    }
+
+    /**
+     * Returns the access sequence 0, 1, ..., width - 1, 0, 1, ... of the given
+     * length.
+     *
+     * @param width
+     * @param height
+     * @return
+     */
+    public static GridSet sequential(int width, int height) {
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException("size must be positive");
         }
 
-        boolean[][] newGrid = new boolean[width][height];
+        GridSet newGrid = new GridSet(width, height, GridSet.Storage.forSize(width, height));
+
+        for (int j = 0; j < height; j++) {
+            newGrid.addToGroundSet(j % width, j);
+        }
+
+        return newGrid;
+    }
+
+    /**
+     * Returns the bit-reversal permutation of the keys, repeated until the
+     * given height is reached. If the width is not a power of two, the keys
+     * appear in the order of the bit-reversal permutation of the next power
+     * of two.
+     *
+     * @param width
+     * @param height
+     * @return
+     */
+    public static GridSet bitReversal(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        int bits = 32 - Integer.numberOfLeadingZeros(width - 1);
+        int[] permutation = new int[width];
+        int count = 0;
+
+        for (int r = 0; count < width; r++) {
+            int key = (bits == 0 ? 0 : Integer.reverse(r) >>> (32 - bits));
+
+            if (key < width) {
+                permutation[count] = key;
+                count++;
+            }
+        }
+
+        GridSet newGrid = new GridSet(width, height, GridSet.Storage.forSize(width, height));
 
         for (int j = 0; j < height; j++) {
-            newGrid[rand.nextInt(width)][j] = true;
+            newGrid.addToGroundSet(permutation[j % width], j);
         }
 
-        return new GridSet(newGrid);
+        return newGrid;
     }
 
 }
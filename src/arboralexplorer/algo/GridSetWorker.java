@@ -16,27 +16,64 @@
 package arboralexplorer.algo;
 
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import arboralexplorer.gui.DrawPanel;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import javax.swing.SwingUtilities;
 import javax.swing.SwingWorker;
 
-public abstract class GridSetWorker extends SwingWorker<GridSet, GridSet> {
+/**
+ * Runs a {@link Solver} in the background and shows its intermediate and final
+ * solutions in a DrawPanel. Its progress is available as the "progress"
+ * property, and cancelling the worker cancels the solver.
+ */
+public class GridSetWorker extends SwingWorker<GridSet, GridSet> {
 
     private final DrawPanel drawPanel;
-    protected final GridSet inputGrid;
+    private final Solver solver;
+    private final GridView inputGrid;
+    private volatile GridSet lastSolution = null;
 
-    public GridSetWorker(DrawPanel drawPanel, GridSet inputGrid) {
+    public GridSetWorker(DrawPanel drawPanel, Solver solver, GridView inputGrid) {
         this.drawPanel = drawPanel;
+        this.solver = solver;
         this.inputGrid = inputGrid;
     }
-    
-    // check isCancelled frequently
-    // use setProgress to update progress estimates
-    // call publish with interim results
+
+    @Override
+    protected GridSet doInBackground() throws Exception {
+        CancellationToken token = new CancellationToken() {
+            @Override
+            public boolean isCancelled() {
+                return super.isCancelled() || GridSetWorker.this.isCancelled();
+            }
+        };
+
+        GridSet solution = solver.solve(inputGrid, new SolverContext(token, this::setProgress, s -> {
+            lastSolution = s;
+            publish(s);
+        }));
+
+        if (isCancelled()) {
+            // The worker is already done, but the solver returned the best
+            // solution it found
+            SwingUtilities.invokeLater(() -> drawPanel.setGrid(solution));
+        }
+
+        return solution;
+    }
 
     @Override
     protected void done() {
+        if (isCancelled()) {
+            // get() throws, so show the last solution that was published
+            if (lastSolution != null) {
+                drawPanel.setGrid(lastSolution);
+            }
+            return;
+        }
+
         try {
             setProgress(100);
             drawPanel.setGrid(get());
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import java.util.Arrays;
+
+/**
+ * A segment tree that stores one int per index and finds the first or last
+ * index in a range whose value exceeds a threshold, in O(log n) time. Used to
+ * keep track of the highest point in each column during a row sweep.
+ */
+public class MaxSegmentTree {
+
+    private final int leaves; // Number of leaves, a power of two
+    private final int[] max; // max[1] is the root, node v has children 2v and 2v + 1
+
+    /**
+     * Creates a tree with the given initial values. The tree is padded to a
+     * power of two with values of -1, which are never reported by the queries
+     * as long as the threshold is at least -1.
+     *
+     * @param values
+     */
+    public MaxSegmentTree(int[] values) {
+        int n = 1;
+
+        while (n < values.length) {
+            n *= 2;
+        }
+
+        leaves = n;
+        max = new int[2 * n];
+        Arrays.fill(max, -1);
+        System.arraycopy(values, 0, max, n, values.length);
+
+        for (int node = n - 1; node >= 1; node--) {
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+
+    public int get(int index) {
+        return max[leaves + index];
+    }
+
+    public void set(int index, int value) {
+        int node = leaves + index;
+        max[node] = value;
+
+        for (node /= 2; node >= 1; node /= 2) {
+            max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Returns the smallest index in [from, to] whose value is larger than
+     * threshold, or -1 if there is none.
+     */
+    public int firstAbove(int from, int to, int threshold) {
+        if (from > to) {
+            return -1;
+        }
+
+        return firstAbove(1, 0, leaves - 1, from, to, threshold);
+    }
+
+    /**
+     * Returns the largest index in [from, to] whose value is larger than
+     * threshold, or -1 if there is none.
+     */
+    public int lastAbove(int from, int to, int threshold) {
+        if (from > to) {
+            return -1;
+        }
+
+        return lastAbove(1, 0, leaves - 1, from, to, threshold);
+    }
+
+    private int firstAbove(int node, int nodeFrom, int nodeTo, int from, int to, int threshold) {
+        if (nodeTo < from || to < nodeFrom || max[node] <= threshold) {
+            return -1;
+        }
+        if (nodeFrom == nodeTo) {
+            return nodeFrom;
+        }
+
+        int mid = (nodeFrom + nodeTo) / 2;
+        int result = firstAbove(2 * node, nodeFrom, mid, from, to, threshold);
+
+        return (result >= 0 ? result : firstAbove(2 * node + 1, mid + 1, nodeTo, from, to, threshold));
+    }
+
+    private int lastAbove(int node, int nodeFrom, int nodeTo, int from, int to, int threshold) {
+        if (nodeTo < from || to < nodeFrom || max[node] <= threshold) {
+            return -1;
+        }
+        if (nodeFrom == nodeTo) {
+            return nodeFrom;
+        }
+
+        int mid = (nodeFrom + nodeTo) / 2;
+        int result = lastAbove(2 * node + 1, mid + 1, nodeTo, from, to, threshold);
+
+        return (result >= 0 ? result : lastAbove(2 * node, nodeFrom, mid, from, to, threshold));
+    }
+}
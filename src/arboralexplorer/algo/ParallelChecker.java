@@ -0,0 +1,172 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.data.GridView;
+import arboralexplorer.data.ViolationList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds ASS violations by splitting the grid into horizontal stripes and
+ * sweeping them in parallel. The sweep of a stripe only depends on the highest
+ * point below it in each column, so this is done in three steps:
+ * <ol>
+ * <li>In parallel, find the highest point in each column of every stripe.</li>
+ * <li>Combine these into the frontier below each stripe.</li>
+ * <li>In parallel, sweep every stripe from its frontier.</li>
+ * </ol>
+ * The violations of the stripes are then concatenated from bottom to top,
+ * which gives exactly the list the sequential sweep would find.
+ */
+final class ParallelChecker {
+
+    private static final int MIN_STRIPE_HEIGHT = 64;
+    private static final int STRIPES_PER_THREAD = 4;
+
+    private ParallelChecker() {
+    }
+
+    /**
+     * Adds the violations of the grid to violations if that is not null, and
+     * stops as soon as limit violations have been found.
+     *
+     * @return the number of violations found.
+     */
+    static int sweep(GridView grid, ViolationList violations, int limit) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int height = grid.getHeight();
+        int nStripes = Math.max(1, Math.min(STRIPES_PER_THREAD * pool.getParallelism(), height / MIN_STRIPE_HEIGHT));
+        boolean segmentTree = (ArboralChecker.Method.forGrid(grid) == ArboralChecker.Method.SEGMENT_TREE);
+
+        int[][] frontiers = new int[nStripes][];
+        int[] counts = new int[nStripes];
+        ViolationList[] stripeViolations = new ViolationList[nStripes];
+
+        pool.invoke(new StripeTask(grid, nStripes, 0, nStripes, frontiers, null, null, limit, false));
+
+        // Turn the highest point of each stripe into the frontier below each stripe
+        int[] below = new int[grid.getWidth()];
+        Arrays.fill(below, -1);
+
+        for (int s = 0; s < nStripes; s++) {
+            int[] highest = frontiers[s];
+
+            for (int i = 0; i < below.length; i++) {
+                int h = highest[i];
+                highest[i] = below[i];
+
+                if (h > below[i]) {
+                    below[i] = h;
+                }
+            }
+        }
+
+        if (violations != null) {
+            for (int s = 0; s < nStripes; s++) {
+                stripeViolations[s] = new ViolationList();
+            }
+        }
+
+        pool.invoke(new StripeTask(grid, nStripes, 0, nStripes, frontiers, counts, stripeViolations, limit, segmentTree));
+
+        // Merge the stripes in order
+        int count = 0;
+
+        for (int s = 0; s < nStripes && count < limit; s++) {
+            int taken = Math.min(counts[s], limit - count);
+
+            if (violations != null) {
+                violations.addAll(stripeViolations[s], taken);
+            }
+
+            count += taken;
+        }
+
+        return count;
+    }
+
+    private static int stripeStart(int stripe, int nStripes, int height) {
+        return (int) ((long) stripe * height / nStripes);
+    }
+
+    /**
+     * Handles the stripes from..to - 1, splitting them in halves until a
+     * single stripe remains. Without counts, it stores the highest point in
+     * each column of the stripe in frontiers; with counts, it sweeps the
+     * stripe starting from the frontier.
+     */
+    private static class StripeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GridView grid;
+        private final int nStripes;
+        private final int from, to;
+        private final int[][] frontiers;
+        private final int[] counts;
+        private final ViolationList[] violations;
+        private final int limit;
+        private final boolean segmentTree;
+
+        StripeTask(GridView grid, int nStripes, int from, int to, int[][] frontiers, int[] counts, ViolationList[] violations, int limit, boolean segmentTree) {
+            this.grid = grid;
+            this.nStripes = nStripes;
+            this.from = from;
+            this.to = to;
+            this.frontiers = frontiers;
+            this.counts = counts;
+            this.violations = violations;
+            this.limit = limit;
+            this.segmentTree = segmentTree;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) / 2;
+                invokeAll(new StripeTask(grid, nStripes, from, mid, frontiers, counts, violations, limit, segmentTree),
+                        new StripeTask(grid, nStripes, mid, to, frontiers, counts, violations, limit, segmentTree));
+                return;
+            }
+
+            int fromRow = stripeStart(from, nStripes, grid.getHeight());
+            int toRow = stripeStart(from + 1, nStripes, grid.getHeight());
+
+            if (counts == null) {
+                frontiers[from] = highestPoints(fromRow, toRow);
+            } else if (segmentTree) {
+                counts[from] = SweepLineChecker.sweep(grid, frontiers[from], fromRow, toRow, violations[from], limit);
+            } else {
+                counts[from] = ArboralChecker.sweep(grid, frontiers[from], fromRow, toRow, violations[from], limit);
+            }
+        }
+
+        private int[] highestPoints(int fromRow, int toRow) {
+            int[] highest = new int[grid.getWidth()];
+            Arrays.fill(highest, -1);
+
+            for (int j = fromRow; j < toRow; j++) {
+                for (int i = grid.nextPointInRow(0, j); i >= 0; i = grid.nextPointInRow(i + 1, j)) {
+                    highest[i] = j;
+                }
+            }
+
+            return highest;
+        }
+    }
+}
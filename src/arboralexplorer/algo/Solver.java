@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * An algorithm that computes a grid from an input grid, and that can report
+ * its progress and be cancelled through a {@link SolverContext}. Static solve
+ * methods can be used as a solver with a lambda, such as
+ * {@code (grid, context) -> GreedyASS.solve(grid)}.
+ */
+public interface Solver {
+
+    /**
+     * Solves the given grid. A solver that is cancelled should return the
+     * best result it has so far, or throw a
+     * {@link java.util.concurrent.CancellationException} if it has none.
+     *
+     * @param grid
+     * @param context
+     * @return
+     * @throws Exception
+     */
+    GridSet solve(GridView grid, SolverContext context) throws Exception;
+
+    /**
+     * Starts solving the given grid on the given executor. Cancelling the
+     * returned future also cancels the context's token.
+     *
+     * @param grid
+     * @param context
+     * @param executor
+     * @return
+     */
+    default CompletableFuture<GridSet> submit(GridView grid, SolverContext context, Executor executor) {
+        CompletableFuture<GridSet> result = new CompletableFuture<>();
+
+        result.whenComplete((solution, ex) -> {
+            if (result.isCancelled()) {
+                context.getCancellationToken().cancel();
+            }
+        });
+
+        executor.execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+
+            try {
+                result.complete(solve(grid, context));
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+
+        return result;
+    }
+}
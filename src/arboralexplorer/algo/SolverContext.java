@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.data.GridSet;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * What a running {@link Solver} can see of its caller: whether it should
+ * stop, and where to report its progress and intermediate solutions. The
+ * listeners are called on the solver's thread.
+ */
+public class SolverContext {
+
+    private final CancellationToken cancellationToken;
+    private final IntConsumer progressListener;
+    private final Consumer<GridSet> solutionListener;
+
+    /**
+     * Creates a context that is never cancelled and ignores progress and
+     * intermediate solutions.
+     */
+    public SolverContext() {
+        this(new CancellationToken(), null, null);
+    }
+
+    /**
+     * Creates a context with the given cancellation token, that ignores
+     * progress and intermediate solutions.
+     *
+     * @param cancellationToken
+     */
+    public SolverContext(CancellationToken cancellationToken) {
+        this(cancellationToken, null, null);
+    }
+
+    /**
+     * Creates a new context. The listeners may be null.
+     *
+     * @param cancellationToken
+     * @param progressListener receives the progress as a percentage
+     * @param solutionListener receives every intermediate solution
+     */
+    public SolverContext(CancellationToken cancellationToken, IntConsumer progressListener, Consumer<GridSet> solutionListener) {
+        if (cancellationToken == null) {
+            throw new IllegalArgumentException("The cancellation token must not be null.");
+        }
+
+        this.cancellationToken = cancellationToken;
+        this.progressListener = progressListener;
+        this.solutionListener = solutionListener;
+    }
+
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Returns true if the solver should stop as soon as possible. Solvers
+     * should check this frequently.
+     *
+     * @return
+     */
+    public boolean isCancelled() {
+        return cancellationToken.isCancelled();
+    }
+
+    /**
+     * Reports the progress of the solver, as a percentage between 0 and 100.
+     *
+     * @param percentage
+     */
+    public void setProgress(int percentage) {
+        if (progressListener != null) {
+            progressListener.accept(Math.max(0, Math.min(100, percentage)));
+        }
+    }
+
+    /**
+     * Reports a solution found before the solver is done, usually the best
+     * one so far.
+     *
+     * @param solution
+     */
+    public void publish(GridSet solution) {
+        if (solutionListener != null) {
+            solutionListener.accept(solution);
+        }
+    }
+}
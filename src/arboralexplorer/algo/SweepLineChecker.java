@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.data.GridView;
+import arboralexplorer.data.ViolationList;
+
+/**
+ * Finds ASS violations with the same row sweep as the default checker, but
+ * keeps the highest point seen so far in each column in a segment tree. From
+ * each point, the next visible point to the left or right is found with a
+ * single query, instead of by walking over all columns up to the next point
+ * in the row. With n points and k violations, this takes O((n + k) log w)
+ * time, where w is the width of the grid.
+ */
+final class SweepLineChecker {
+
+    private SweepLineChecker() {
+    }
+
+    /**
+     * Sweeps the rows fromRow to toRow - 1 from bottom to top, starting from
+     * the highest point below fromRow in each column, given by frontier. Adds
+     * the violations it finds to violations if that is not null, in the same
+     * order as the default checker, and stops as soon as limit violations have
+     * been found.
+     *
+     * @return the number of violations found.
+     */
+    static int sweep(GridView grid, int[] frontier, int fromRow, int toRow, ViolationList violations, int limit) {
+        int count = 0;
+
+        int width = grid.getWidth();
+        MaxSegmentTree lowestPoint = new MaxSegmentTree(frontier);
+
+        for (int j = fromRow; j < toRow; j++) {
+            int previous = -1;
+            int i = grid.nextPointInRow(0, j);
+
+            while (i >= 0) {
+                int next = grid.nextPointInRow(i + 1, j);
+
+                // Scan left, up to the previous point in this row
+                int lowest = lowestPoint.get(i);
+
+                for (int k = lowestPoint.lastAbove(previous + 1, i - 1, lowest); k >= 0; k = lowestPoint.lastAbove(previous + 1, k - 1, lowest)) {
+                    lowest = lowestPoint.get(k);
+
+                    if (violations != null) {
+                        violations.add(k, lowest, i, j);
+                    }
+                    if (++count == limit) {
+                        return count;
+                    }
+                }
+
+                // Scan right, up to the next point in this row
+                lowest = lowestPoint.get(i);
+                int end = (next < 0 ? width : next);
+
+                for (int k = lowestPoint.firstAbove(i + 1, end - 1, lowest); k >= 0; k = lowestPoint.firstAbove(k + 1, end - 1, lowest)) {
+                    lowest = lowestPoint.get(k);
+
+                    if (violations != null) {
+                        violations.add(i, j, k, lowest);
+                    }
+                    if (++count == limit) {
+                        return count;
+                    }
+                }
+
+                lowestPoint.set(i, j);
+                previous = i;
+                i = next;
+            }
+        }
+
+        return count;
+    }
+}
@@ -16,30 +16,32 @@
 package arboralexplorer.algo.lowerbound;
 
 import arboralexplorer.algo.CmplUtils;
+import arboralexplorer.algo.Formulation;
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import jCMPL.Cmpl;
 import jCMPL.CmplException;
-import jCMPL.CmplParameter;
-import jCMPL.CmplSet;
 import jCMPL.CmplSolElement;
 
 public class LinearProgramLB {
 
-    public static GridSet solve(GridSet grid) throws CmplException {
-        // Initialize the parameters
-        CmplSet ground = new CmplSet("ground", 2);
-        ground.setValues(CmplUtils.getGroundSetPoints(grid));
-
-        CmplParameter n = new CmplParameter("n");
-        n.setValues(grid.getWidth());
-
-        CmplParameter m = new CmplParameter("m");
-        m.setValues(grid.getHeight());
+    public static GridSet solve(GridView grid) throws CmplException {
+        return solve(grid, Formulation.FULL);
+    }
 
+    /**
+     * Solves the linear programming relaxation of the given formulation, and
+     * prints the resulting lower bound. The returned grid contains every
+     * point with a positive value.
+     *
+     * @param grid
+     * @param formulation
+     * @return
+     * @throws CmplException
+     */
+    public static GridSet solve(GridView grid, Formulation formulation) throws CmplException {
         // Set up and solve the model
-        Cmpl model = new Cmpl("data/assLP.cmpl");
-        model.setSets(ground);
-        model.setParameters(n, m);
+        Cmpl model = formulation.createRelaxedModel(grid);
         model.setOutput(Boolean.TRUE, "LP - ");
 
         model.solve();
@@ -51,7 +53,7 @@ public class LinearProgramLB {
         }
         System.out.printf("Lower bound: %.0f%n", Math.ceil(model.solution().value()));
 
-        return new GridSet(CmplUtils.extractSolution(model, grid.getWidth(), grid.getHeight()), grid.getGroundSet());
+        return new GridSet(CmplUtils.extractSolution(model, grid.getWidth(), grid.getHeight()), grid);
     }
 
     private LinearProgramLB() {
@@ -16,6 +16,7 @@
 package arboralexplorer.algo.lowerbound;
 
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import arboralexplorer.Pair;
 import java.util.Arrays;
 
@@ -37,39 +38,69 @@ public class SignedGreedy {
      * @param grid
      * @return
      */
-    public static GridSet solve(Sign sign, GridSet grid) {
+    public static GridSet solve(Sign sign, GridView grid) {
+        GridSet newGrid = GridSet.copyGroundSet(grid);
+        sweep(sign, grid, newGrid);
+        return newGrid;
+    }
+
+    /**
+     * Returns the number of points that signed greedy adds to the ground set
+     * of the given grid, without building the superset. This is the fewest
+     * points that remove all violations of the given sign, and an ASS has none
+     * of them, so it is a lower bound on the number of points an ASS adds.
+     *
+     * @param sign
+     * @param grid
+     * @return
+     */
+    public static int countAddedPoints(Sign sign, GridView grid) {
+        return sweep(sign, grid, null);
+    }
+
+    /**
+     * Runs signed greedy on the ground set of the grid, adding its points to
+     * newGrid if that is not null, and returns the number of added points.
+     */
+    private static int sweep(Sign sign, GridView grid, GridSet newGrid) {
         int width = grid.getWidth(), height = grid.getHeight();
-        boolean[][] newGrid = new boolean[width][height];
+        int added = 0;
 
         int[] lowestPoint = new int[width];
         Arrays.fill(lowestPoint, -1);
 
         for (int j = 0; j < height; j++) {
-            for (int i = 0; i < width; i++) {
-                if (grid.isGroundSet(i, j)) {
-                    newGrid[i][j] = true;
-
-                    int lowest = lowestPoint[i];
-                    int k = (sign == Sign.Negative) ? i-1 : i+1; // Scan left or right
-
-                    if (lowest != j + 1) {
-                        while(((sign == Sign.Negative) ? k >= 0 : k < width) &&
-                            !grid.isGroundSet(k, j)) {
-                                if (lowestPoint[k] > lowest) {
-                                    lowest = lowestPoint[k];
-                                    newGrid[k][j] = true;
-                                    lowestPoint[k] = j;
-                                }
-                                k += (sign == Sign.Negative) ? -1 : 1;
+            int previous = -1;
+            int i = grid.nextGroundSetPointInRow(0, j);
+
+            while (i >= 0) {
+                int next = grid.nextGroundSetPointInRow(i + 1, j);
+
+                int lowest = lowestPoint[i];
+                int k = (sign == Sign.Negative) ? i-1 : i+1; // Scan left or right
+                int end = (sign == Sign.Negative) ? previous : (next < 0 ? width : next);
+
+                if (lowest != j + 1) {
+                    while (k != end) {
+                        if (lowestPoint[k] > lowest) {
+                            lowest = lowestPoint[k];
+                            if (newGrid != null) {
+                                newGrid.addPoint(k, j);
                             }
+                            added++;
+                            lowestPoint[k] = j;
+                        }
+                        k += (sign == Sign.Negative) ? -1 : 1;
                     }
-
-                    lowestPoint[i] = j;
                 }
+
+                lowestPoint[i] = j;
+                previous = i;
+                i = next;
             }
         }
 
-        return new GridSet(newGrid, grid.getGroundSet());
+        return added;
     }
 
     /**
@@ -79,21 +110,18 @@ public class SignedGreedy {
      * @param grid
      * @return
      */
-	public static GridSet solveSignedUnion(GridSet grid) {
+    public static GridSet solveSignedUnion(GridView grid) {
+        GridSet negativeSigned = solve(Sign.Negative, grid);
+        GridSet positiveSigned = solve(Sign.Positive, grid);
 
-	GridSet negativeSigned = solve(Sign.Negative, grid);
-	GridSet positiveSigned = solve(Sign.Positive, grid);
+        GridSet newGrid = new GridSet(negativeSigned);
 
-        int width = grid.getWidth(), height = grid.getHeight();
-        boolean[][] newGrid = new boolean[width][height];
-
-		for(int j = 0; j < height; j++) {
-			for(int i = 0; i < width; i++) {
-                            newGrid[i][j] = negativeSigned.hasPoint(i, j) ||
-                                    positiveSigned.hasPoint(i, j);
-			}
-		}
+        for (int j = 0; j < grid.getHeight(); j++) {
+            for (int i = positiveSigned.nextPointInRow(0, j); i >= 0; i = positiveSigned.nextPointInRow(i + 1, j)) {
+                newGrid.addPoint(i, j);
+            }
+        }
 
-		return new GridSet(newGrid, grid.getGroundSet());
-	}
+        return newGrid;
+    }
 }
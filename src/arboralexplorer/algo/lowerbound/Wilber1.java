@@ -16,6 +16,7 @@
 package arboralexplorer.algo.lowerbound;
 
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 
 public class Wilber1 {
 
@@ -25,17 +26,15 @@ public class Wilber1 {
      * @param grid
      * @return
      */
-    public static GridSet solve(GridSet grid) {
-        boolean[][] newGrid = grid.getGroundSet();
+    public static GridSet solve(GridView grid) {
+        GridSet newGrid = GridSet.copyGroundSet(grid);
 
         solveRecursive(grid, getQueries(grid), newGrid, 0, grid.getWidth() - 1);
 
-        return new GridSet(newGrid, grid.getGroundSet());
+        return newGrid;
     }
 
-    private static void solveRecursive(GridSet grid, int[] queries, boolean[][] newGrid, int left, int right) {
-        System.out.printf("sr (%d, %d)%n", left, right);
-
+    private static void solveRecursive(GridView grid, int[] queries, GridSet newGrid, int left, int right) {
         if (left >= right) {
             return;
         }
@@ -55,8 +54,8 @@ public class Wilber1 {
 
             if (previousSide != null && previousSide != currentSide) {
                 // Add both points on the line
-                newGrid[mid][prevY] = true;
-                newGrid[mid][j] = true;
+                newGrid.addPoint(mid, prevY);
+                newGrid.addPoint(mid, j);
             }
 
             previousSide = currentSide;
@@ -68,18 +67,13 @@ public class Wilber1 {
         solveRecursive(grid, queries, newGrid, mid + 1, right);
     }
 
-    private static int[] getQueries(GridSet grid) {
+    private static int[] getQueries(GridView grid) {
         int[] input = new int[grid.getHeight()];
 
         // Convert Ground set to a sequence while creating a map that maps
         // row indices in grid-space to non-empty row grid-space.
         for (int j = 0; j < grid.getHeight(); j++) {
-            for (int i = 0; i < grid.getWidth(); i++) {
-                if (grid.isGroundSet(i, j)) {
-                    input[j] = i;
-                    break;
-                }
-            }
+            input[j] = Math.max(grid.nextGroundSetPointInRow(0, j), 0);
         }
 
         return input;
@@ -16,6 +16,7 @@
 package arboralexplorer.algo.lowerbound;
 
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import arboralexplorer.data.WilberData;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,16 +30,24 @@ public class WilberX {
      * @param grid
      * @return
      */
-    public static GridSet solve(GridSet grid) {
-        boolean[][] newGrid = grid.getGroundSet();
-
-        WilberData wilber = new WilberData(newGrid);
+    public static GridSet solve(GridView grid) {
+        GridSet newGridSet = GridSet.copyGroundSet(grid);
+        WilberData wilber = new WilberData(newGridSet.getGroundSet());
 
         int[] queries = getQueries(grid);
 
         solveRecursive(wilber, queries, invertPermutation(queries), 0, grid.getWidth() - 1, 0, grid.getHeight() - 1, false);
 
-        GridSet newGridSet = new GridSet(wilber.getGrid(), grid.getGroundSet());
+        boolean[][] newGrid = wilber.getGrid();
+
+        for (int i = 0; i < newGrid.length; i++) {
+            for (int j = 0; j < newGrid[i].length; j++) {
+                if (newGrid[i][j]) {
+                    newGridSet.addPoint(i, j);
+                }
+            }
+        }
+
         newGridSet.setWilberData(wilber);
 
         return newGridSet;
@@ -117,18 +126,13 @@ public class WilberX {
         solveRecursive(wilber, invertq, queries, bot, top, mid + 1, right, !invert);
     }
 
-    private static int[] getQueries(GridSet grid) {
+    private static int[] getQueries(GridView grid) {
         int[] input = new int[grid.getHeight()];
 
         // Convert Ground set to a sequence while creating a map that maps
         // row indices in grid-space to non-empty row grid-space.
         for (int j = 0; j < grid.getHeight(); j++) {
-            for (int i = 0; i < grid.getWidth(); i++) {
-                if (grid.isGroundSet(i, j)) {
-                    input[j] = i;
-                    break;
-                }
-            }
+            input[j] = Math.max(grid.nextGroundSetPointInRow(0, j), 0);
         }
 
         return input;
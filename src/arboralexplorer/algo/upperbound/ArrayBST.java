@@ -0,0 +1,317 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import java.util.Arrays;
+
+/**
+ * Base class for simulating a binary search tree algorithm on the keys
+ * 0..n - 1. The tree is stored in a single int array, with the left child,
+ * right child and parent of key k at 3k, 3k + 1 and 3k + 2, so a simulation
+ * uses O(n) memory and allocates nothing per access.
+ *
+ * Subclasses implement {@link #execute(int)}. They must call {@link #touch(int)}
+ * on every node they look at, and may only change the tree through
+ * {@link #rotate(int)}, which touches the nodes whose children change. The
+ * touched nodes of an access then form a subtree containing the root, so the
+ * touched points of all accesses form an arborally satisfied set.
+ */
+public abstract class ArrayBST {
+
+    protected static final int NIL = -1;
+    private static final int LEFT = 0, RIGHT = 1, PARENT = 2;
+
+    protected final int n;
+    private final int[] nodes;
+    private int root;
+    private final boolean recordTouched;
+    private int[] touched = new int[16];
+    private int touchedCount = 0;
+    private final int[] touchedInAccess; // The last access in which each node was touched
+    private int accesses = 0;
+    private int accessCost = 0;
+    private long cost = 0;
+    private long rotations = 0;
+
+    /**
+     * Creates a balanced tree on the keys 0..n - 1. If recordTouched is false,
+     * only the costs are kept track of.
+     *
+     * @param n
+     * @param recordTouched
+     */
+    protected ArrayBST(int n, boolean recordTouched) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("The number of keys must be positive.");
+        }
+
+        this.n = n;
+        this.nodes = new int[3 * n];
+        this.recordTouched = recordTouched;
+        this.touchedInAccess = new int[n];
+        Arrays.fill(touchedInAccess, -1);
+
+        root = build(0, n, NIL);
+    }
+
+    /**
+     * Returns a superset of the given grid without ASS-violations: the points
+     * touched by the given tree when it accesses the ground set points, row by
+     * row, and from left to right within a row.
+     *
+     * @param grid
+     * @param tree a tree on grid.getWidth() keys that records touched nodes
+     * @return
+     */
+    public static GridSet solve(GridView grid, ArrayBST tree) {
+        if (tree.n != grid.getWidth() || !tree.recordTouched) {
+            throw new IllegalArgumentException("The tree must record touched nodes and have one key per column.");
+        }
+
+        GridSet newGrid = GridSet.copyGroundSet(grid);
+
+        for (int j = 0; j < grid.getHeight(); j++) {
+            for (int i = grid.nextGroundSetPointInRow(0, j); i >= 0; i = grid.nextGroundSetPointInRow(i + 1, j)) {
+                tree.access(i);
+
+                for (int t = 0; t < tree.getTouchedCount(); t++) {
+                    newGrid.addPoint(tree.getTouched(t), j);
+                }
+            }
+        }
+
+        return newGrid;
+    }
+
+    /**
+     * Accesses all keys in order and returns the total number of nodes
+     * touched.
+     *
+     * @param tree
+     * @param accesses
+     * @return
+     */
+    public static long cost(ArrayBST tree, int[] accesses) {
+        for (int key : accesses) {
+            tree.access(key);
+        }
+
+        return tree.getCost();
+    }
+
+    /**
+     * Accesses the given key.
+     *
+     * @param key
+     * @return the number of nodes touched.
+     */
+    public int access(int key) {
+        if (key < 0 || key >= n) {
+            throw new IllegalArgumentException("Key " + key + " is not in [0, " + n + ").");
+        }
+
+        touchedCount = 0;
+        accessCost = 0;
+
+        execute(key);
+
+        accesses++;
+        cost += accessCost;
+
+        return accessCost;
+    }
+
+    /**
+     * Performs the access to key. The subclass must touch every node it
+     * inspects, starting from the root.
+     *
+     * @param key
+     */
+    protected abstract void execute(int key);
+
+    /**
+     * Returns the number of nodes touched by the last access, or 0 if the
+     * touched nodes are not recorded.
+     *
+     * @return
+     */
+    public int getTouchedCount() {
+        return touchedCount;
+    }
+
+    /**
+     * Returns the index-th node touched by the last access, in the order in
+     * which they were touched.
+     *
+     * @param index
+     * @return
+     */
+    public int getTouched(int index) {
+        if (index < 0 || index >= touchedCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + touchedCount + ").");
+        }
+
+        return touched[index];
+    }
+
+    /**
+     * Returns the total number of nodes touched so far.
+     *
+     * @return
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns the total number of rotations performed so far.
+     *
+     * @return
+     */
+    public long getRotations() {
+        return rotations;
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    protected final int left(int x) {
+        return nodes[3 * x + LEFT];
+    }
+
+    protected final int right(int x) {
+        return nodes[3 * x + RIGHT];
+    }
+
+    protected final int parent(int x) {
+        return nodes[3 * x + PARENT];
+    }
+
+    /**
+     * Marks the node as touched by the current access. Touching a node more
+     * than once has no further effect.
+     *
+     * @param x
+     */
+    protected final void touch(int x) {
+        if (touchedInAccess[x] == accesses) {
+            return;
+        }
+
+        touchedInAccess[x] = accesses;
+        accessCost++;
+
+        if (recordTouched) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, 2 * touched.length);
+            }
+
+            touched[touchedCount] = x;
+            touchedCount++;
+        }
+    }
+
+    /**
+     * Walks from the root to the given key, touching every node on the way.
+     *
+     * @param key
+     */
+    protected final void search(int key) {
+        int node = root;
+
+        while (true) {
+            touch(node);
+
+            if (key < node) {
+                node = left(node);
+            } else if (key > node) {
+                node = right(node);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rotates x above its parent, touching x, its parent and its grandparent.
+     *
+     * @param x
+     */
+    protected void rotate(int x) {
+        int p = parent(x);
+        int g = parent(p);
+
+        touch(x);
+        touch(p);
+
+        if (left(p) == x) {
+            int child = right(x);
+            nodes[3 * p + LEFT] = child;
+
+            if (child != NIL) {
+                nodes[3 * child + PARENT] = p;
+            }
+
+            nodes[3 * x + RIGHT] = p;
+        } else {
+            int child = left(x);
+            nodes[3 * p + RIGHT] = child;
+
+            if (child != NIL) {
+                nodes[3 * child + PARENT] = p;
+            }
+
+            nodes[3 * x + LEFT] = p;
+        }
+
+        nodes[3 * p + PARENT] = x;
+        nodes[3 * x + PARENT] = g;
+
+        if (g == NIL) {
+            root = x;
+        } else {
+            touch(g);
+
+            if (left(g) == p) {
+                nodes[3 * g + LEFT] = x;
+            } else {
+                nodes[3 * g + RIGHT] = x;
+            }
+        }
+
+        rotations++;
+    }
+
+    /**
+     * Builds a balanced tree on the keys in [lowerBound, upperBound) and
+     * returns its root. Uses the same roots as {@link StaticBalancedTree}.
+     */
+    private int build(int lowerBound, int upperBound, int parentNode) {
+        if (lowerBound >= upperBound) {
+            return NIL;
+        }
+
+        int node = lowerBound + (upperBound - lowerBound - 1) / 2;
+        nodes[3 * node + PARENT] = parentNode;
+        nodes[3 * node + LEFT] = build(lowerBound, node, node);
+        nodes[3 * node + RIGHT] = build(node + 1, upperBound, node);
+
+        return node;
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.algo.SolverContext;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import java.util.Arrays;
+
+/**
+ * This class computes a smallest superset of the given grid without
+ * ASS-violations, by dynamic programming over the rows.
+ *
+ * The rows are decided from bottom to top, like the sweep of
+ * {@link arboralexplorer.algo.ArboralChecker}. Whether a set of points in the
+ * next row creates a violation with the rows below only depends on the highest
+ * point so far in each column (the lowestPoint array of the checker), and
+ * only on which columns are highest within each range of columns. A state is
+ * therefore a canonical rank for each column, and the states after a row are
+ * kept in a hash map with the cheapest way to reach them. States are pruned
+ * with lower bounds from the optimal costs of strips of rows, which makes the
+ * running time grow slowly with the height, but quickly with the width.
+ */
+public class FrontierOpt {
+
+    /**
+     * The widest grid that can be solved: a state stores the rank of each
+     * column in 4 bits of a long.
+     */
+    public static final int MAX_WIDTH = 16;
+    private static final int BITS = 4;
+    private static final int RANK_MASK = (1 << BITS) - 1;
+    private static final int WINDOW = 16; // The rows of a strip
+
+    private final GridView grid;
+    private final SolverContext context;
+    private final int width;
+    private final int height;
+    private final int[] groundMask; // The ground set columns of each row
+    private int limit; // Only states that can cost at most this are kept
+    private long rowsDone = 0;
+    private long rowsTotal;
+    private int[] remaining; // At least remaining[j] points are needed from row j up
+    private int end; // The row after the last one of the current search
+    private Layer[] layers;
+    private int lastState; // The cheapest state after the last search
+    // The state that is being expanded, and the row that is being filled
+    private final int[] rank;
+    private final int[] newRank;
+    private int source;
+    private int row;
+    private Layer next;
+    private final LongIntHashMap index = new LongIntHashMap();
+
+    public static GridSet solve(GridView grid) {
+        return solve(grid, new SolverContext());
+    }
+
+    /**
+     * Computes a smallest ASS that contains the ground set of the given grid,
+     * reporting progress and the initial solution to the context. When
+     * cancelled, it returns the greedy solution.
+     *
+     * @param grid
+     * @param context
+     * @return
+     * @throws IllegalArgumentException if the grid is wider than
+     * {@link #MAX_WIDTH}.
+     */
+    public static GridSet solve(GridView grid, SolverContext context) {
+        if (grid.getWidth() > MAX_WIDTH) {
+            throw new IllegalArgumentException("The grid can be at most " + MAX_WIDTH + " columns wide.");
+        }
+
+        return new FrontierOpt(grid, context).solve();
+    }
+
+    private FrontierOpt(GridView grid, SolverContext context) {
+        this.grid = grid;
+        this.context = context;
+        width = grid.getWidth();
+        height = grid.getHeight();
+        rank = new int[width];
+        newRank = new int[width];
+        groundMask = new int[height];
+
+        for (int j = 0; j < height; j++) {
+            for (int i = grid.nextGroundSetPointInRow(0, j); i >= 0; i = grid.nextGroundSetPointInRow(i + 1, j)) {
+                groundMask[j] |= 1 << i;
+            }
+        }
+    }
+
+    private GridSet solve() {
+        GridSet greedySolution = GreedyASS.solve(grid);
+        context.publish(greedySolution);
+
+        int[] lowerBound = new int[height];
+        rowsTotal = countRows(0, height);
+
+        if (solveStrip(0, height, lowerBound) < 0) {
+            return greedySolution;
+        }
+
+        // The last search was on all rows
+        int best = lastState;
+        boolean[][] solution = new boolean[width][height];
+
+        for (int j = height - 1; j >= 0; j--) {
+            int mask = layers[j].mask[best];
+
+            for (int i = 0; i < width; i++) {
+                solution[i][j] = (mask & (1 << i)) != 0;
+            }
+
+            best = layers[j].parent[best];
+        }
+
+        GridSet result = new GridSet(solution, grid);
+        context.publish(result);
+        return result;
+    }
+
+    /**
+     * Computes the cost of an optimal ASS of the ground set in the rows from
+     * start to end - 1, and sets lowerBound[j] to a lower bound on the cost in
+     * the rows from j to end - 1, for every row j in the strip. Returns -1 if
+     * cancelled.
+     * <p>
+     * The points in any strip of rows form an ASS of the ground set in that
+     * strip, so the costs of disjoint strips add up to a lower bound. A narrow
+     * strip computes the costs of all its suffixes from the top down, so that
+     * each search can prune with the ones before it. A wider strip is split in
+     * two halves, and its search is pruned with the bounds of the lower half
+     * plus the cost of the upper half. Each search starts with the smallest
+     * limit that these bounds allow, and raises it until it succeeds.
+     */
+    private int solveStrip(int start, int end, int[] lowerBound) {
+        if (end - start > WINDOW) {
+            int middle = (start + end) / 2;
+            int upper = solveStrip(middle, end, lowerBound);
+
+            if (upper < 0 || solveStrip(start, middle, lowerBound) < 0) {
+                return -1;
+            }
+
+            for (int j = start; j < middle; j++) {
+                lowerBound[j] += upper;
+            }
+
+            lowerBound[start] = search(start, end, lowerBound, lowerBound[start]);
+        } else {
+            for (int first = end - 1; first >= start; first--) {
+                lowerBound[first] = search(first, end, lowerBound, (first + 1 < end ? lowerBound[first + 1] : 0));
+
+                if (lowerBound[first] < 0) {
+                    return -1;
+                }
+            }
+        }
+
+        rowsDone += end - start;
+        context.setProgress((int) ((100 * rowsDone) / rowsTotal));
+        return lowerBound[start];
+    }
+
+    /**
+     * Returns the number of rows that solveStrip searches in.
+     */
+    private static long countRows(int start, int end) {
+        if (end - start > WINDOW) {
+            int middle = (start + end) / 2;
+            return countRows(start, middle) + countRows(middle, end) + end - start;
+        } else {
+            return end - start;
+        }
+    }
+
+    /**
+     * Returns the cost of an optimal ASS of the ground set in the rows from
+     * first to end - 1, which is at least minimum, or -1 if cancelled. Runs
+     * a search for every limit from minimum up, until one succeeds.
+     */
+    private int search(int first, int end, int[] remaining, int minimum) {
+        int best = -1;
+
+        for (limit = minimum; best < 0; limit++) {
+            best = search(first, end, remaining);
+
+            if (context.isCancelled()) {
+                return -1;
+            }
+        }
+
+        lastState = best;
+        return layers[end - 1].cost[best];
+    }
+
+    /**
+     * Fills the rows from first to end - 1, starting without any points below
+     * them, and keeping only the states that can lead to a solution with at
+     * most limit new points, given that at least remaining[j] points are needed
+     * in rows j to end - 1. Returns the cheapest state after the last row, or
+     * -1 if there is none.
+     */
+    private int search(int first, int end, int[] remaining) {
+        this.remaining = remaining;
+        this.end = end;
+
+        // Before the first row, no column has a point: every rank is 0
+        Layer previous = new Layer();
+        previous.add(0L, 0, -1, 0);
+        layers = new Layer[height];
+
+        for (row = first; row < end; row++) {
+            next = new Layer();
+            index.clear();
+
+            // Placing a point in every column of the row is always possible,
+            // and leads to the state that allows the most. States that cost
+            // at least as much as doing that from the cheapest state can be
+            // skipped.
+            int minCost = Integer.MAX_VALUE;
+
+            for (int k = 0; k < previous.size; k++) {
+                minCost = Math.min(minCost, previous.cost[k]);
+            }
+
+            int skipCost = minCost + width - Integer.bitCount(groundMask[row]);
+
+            for (source = 0; source < previous.size; source++) {
+                if (context.isCancelled()) {
+                    return -1;
+                }
+                if (previous.cost[source] >= skipCost && previous.cost[source] > minCost) {
+                    continue;
+                }
+
+                long state = previous.keys[source];
+
+                for (int i = 0; i < width; i++) {
+                    rank[i] = (int) (state >>> (BITS * i)) & RANK_MASK;
+                }
+
+                extend(-1, 0, previous.cost[source]);
+            }
+
+            previous.keys = null; // Only needed to find the states of the next row
+            layers[row] = next;
+            previous = next;
+        }
+
+        int best = -1;
+
+        for (int s = 0; s < previous.size; s++) {
+            if (best < 0 || previous.cost[s] < previous.cost[best]) {
+                best = s;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Chooses the next point in the current row, after the point in column
+     * last (or -1 if there is none yet). The points in a row cannot create a
+     * violation with the rows below if, between any two consecutive points and
+     * beyond the first and the last point, every column has its highest point
+     * no higher than the points on either side of it. Points must be placed on
+     * every ground set point, and may be placed anywhere else.
+     */
+    private void extend(int last, int mask, int cost) {
+        if (cost + (row + 1 < end ? remaining[row + 1] : 0) > limit) {
+            return;
+        }
+
+        int nextGround = Integer.numberOfTrailingZeros(groundMask[row] >>> (last + 1)) + last + 1;
+        int lastRank = (last < 0 ? Integer.MAX_VALUE : rank[last]);
+        int gapRank = -1; // The highest rank between last and the next point
+
+        for (int i = last + 1; i < width && i <= nextGround; i++) {
+            if (gapRank <= rank[i]) {
+                extend(i, mask | (1 << i), ((groundMask[row] & (1 << i)) != 0 ? cost : cost + 1));
+            }
+
+            gapRank = Math.max(gapRank, rank[i]);
+
+            if (gapRank > lastRank) {
+                return;
+            }
+        }
+
+        if (nextGround >= width) {
+            // Last point of the row, or an empty row
+            addState(mask, cost);
+        }
+    }
+
+    /**
+     * Adds the state after placing the given points in the current row to the
+     * next layer, or updates it if this way to reach it is cheaper.
+     */
+    private void addState(int mask, int cost) {
+        int top = width; // Higher than any rank
+
+        for (int i = 0; i < width; i++) {
+            newRank[i] = ((mask & (1 << i)) != 0 ? top : rank[i]);
+        }
+
+        canonicalize(newRank, 0, width);
+        long state = 0;
+
+        for (int i = width - 1; i >= 0; i--) {
+            state = (state << BITS) | newRank[i];
+        }
+
+        int s = index.get(state);
+
+        if (s < 0) {
+            index.put(state, next.size);
+            next.add(state, cost, source, mask);
+        } else if (cost < next.cost[s]) {
+            next.cost[s] = cost;
+            next.parent[s] = source;
+            next.mask[s] = mask;
+        }
+    }
+
+    /**
+     * Replaces the ranks of the columns from to to - 1 by canonical ones, and
+     * returns the highest of them, or -1 if the range is empty.
+     * <p>
+     * Whether a set of points can be placed in a row only depends on which
+     * columns have the highest rank in each range of columns. This is captured
+     * by the tree whose root holds the columns of highest rank, with the ranges
+     * between them as subtrees. Equal trees give equal canonical ranks: the
+     * height of the node that holds the column in this tree.
+     */
+    private static int canonicalize(int[] ranks, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+
+        int max = -1;
+
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, ranks[i]);
+        }
+
+        int height = -1;
+        int start = from;
+
+        for (int i = from; i < to; i++) {
+            if (ranks[i] == max) {
+                height = Math.max(height, canonicalize(ranks, start, i));
+                start = i + 1;
+            }
+        }
+
+        height = Math.max(height, canonicalize(ranks, start, to)) + 1;
+
+        for (int i = from; i < to; i++) {
+            if (ranks[i] == max) {
+                ranks[i] = height;
+            }
+        }
+
+        return height;
+    }
+
+    /**
+     * The states after a row, each with the cheapest cost to reach it, the
+     * state in the previous row it was reached from, and the points placed in
+     * the row to get there.
+     */
+    private static class Layer {
+
+        long[] keys = new long[16];
+        int[] cost = new int[16];
+        int[] parent = new int[16];
+        int[] mask = new int[16];
+        int size = 0;
+
+        void add(long key, int c, int p, int m) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                cost = Arrays.copyOf(cost, 2 * size);
+                parent = Arrays.copyOf(parent, 2 * size);
+                mask = Arrays.copyOf(mask, 2 * size);
+            }
+
+            keys[size] = key;
+            cost[size] = c;
+            parent[size] = p;
+            mask[size] = m;
+            size++;
+        }
+    }
+}
@@ -16,7 +16,7 @@
 package arboralexplorer.algo.upperbound;
 
 import arboralexplorer.data.GridSet;
-import java.util.Arrays;
+import arboralexplorer.data.GridView;
 
 public class GreedyASS {
 
@@ -26,49 +26,60 @@ public class GreedyASS {
      * @param grid
      * @return
      */
-    public static GridSet solve(GridSet grid) {
-        int width = grid.getWidth(), height = grid.getHeight();
-        boolean[][] newGrid = new boolean[width][height];
+    public static GridSet solve(GridView grid) {
+        GridSet newGrid = GridSet.copyGroundSet(grid);
+        OnlineGreedyASS greedy = new OnlineGreedyASS(grid.getWidth());
+        int[] accessed = new int[grid.getWidth()];
 
-        int[] lowestPoint = new int[width];
-        Arrays.fill(lowestPoint, -1);
+        for (int j = 0; j < grid.getHeight(); j++) {
+            int count = getAccessedKeys(grid, j, accessed);
 
-        for (int j = 0; j < height; j++) {
-            for (int i = 0; i < width; i++) {
-                if (grid.isGroundSet(i, j)) {
-                    newGrid[i][j] = true;
+            if (count > 0) {
+                greedy.accessRow(accessed, count);
 
-                    // Scan left
-                    int lowest = lowestPoint[i];
+                for (int t = 0; t < greedy.getTouchedCount(); t++) {
+                    newGrid.addPoint(greedy.getTouched(t), j);
+                }
+            }
+        }
 
-                    if (lowest != j + 1) {
-                        for (int k = i - 1; k >= 0 && !grid.isGroundSet(k, j); k--) {
-                            if (lowestPoint[k] > lowest) {
-                                lowest = lowestPoint[k];
-                                newGrid[k][j] = true;
-                                lowestPoint[k] = j;
-                            }
-                        }
-                    }
+        return newGrid;
+    }
 
-                    // Scan right
-                    lowest = lowestPoint[i];
+    /**
+     * Returns the number of points in the solution {@link #solve(GridView)}
+     * would return, without building it.
+     *
+     * @param grid
+     * @return
+     */
+    public static long cost(GridView grid) {
+        OnlineGreedyASS greedy = new OnlineGreedyASS(grid.getWidth(), false);
+        int[] accessed = new int[grid.getWidth()];
 
-                    if (lowest != j + 1) {
-                        for (int k = i + 1; k < width && !grid.isGroundSet(k, j); k++) {
-                            if (lowestPoint[k] > lowest) {
-                                lowest = lowestPoint[k];
-                                newGrid[k][j] = true;
-                                lowestPoint[k] = j;
-                            }
-                        }
-                    }
+        for (int j = 0; j < grid.getHeight(); j++) {
+            int count = getAccessedKeys(grid, j, accessed);
 
-                    lowestPoint[i] = j;
-                }
+            if (count > 0) {
+                greedy.accessRow(accessed, count);
             }
         }
 
-        return new GridSet(newGrid, grid.getGroundSet());
+        return greedy.getCost();
+    }
+
+    /**
+     * Stores the columns of the ground set points in row j in accessed, in
+     * increasing order, and returns their number.
+     */
+    private static int getAccessedKeys(GridView grid, int j, int[] accessed) {
+        int count = 0;
+
+        for (int i = grid.nextGroundSetPointInRow(0, j); i >= 0; i = grid.nextGroundSetPointInRow(i + 1, j)) {
+            accessed[count] = i;
+            count++;
+        }
+
+        return count;
     }
 }
@@ -18,6 +18,7 @@ package arboralexplorer.algo.upperbound;
 import arboralexplorer.algo.ArboralChecker;
 import java.util.*;
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,28 +29,16 @@ import java.util.logging.Logger;
  */
 public class GreedyRectangle {
 
-    public static GridSet solve(GridSet grid) {
+    public static GridSet solve(GridView grid) {
         List<EmptyRect> rectangles = new ArrayList();
 
         int width = grid.getWidth();
         int height = grid.getHeight();
-        boolean[][] newGrid = grid.getGroundSet();
-        for (int j = 0; j < height; j++) {
-            for (int i = 0; i < width; i++) {
-                newGrid[i][j] = grid.hasPoint(i, j);
-            }
-        }
+        GridSet newGrid = new GridSet(grid);
 
         PrefixSum prefix = new PrefixSum(width, height);
         prefix.fillTable(grid);
 
-        for (int j = 0; j < height; j++) {
-            for (int i = 0; i < width; i++) {
-                System.out.print(prefix.getPrefix(i, j));
-                System.out.print(" ");
-            }
-            System.out.print('\n');
-        }
         for (int j = 0; j < height; j++) {
             for (int i = 0; i < width; i++) {
                 for (int l = j; l < height; l++) {
@@ -65,41 +54,42 @@ public class GreedyRectangle {
         Collections.sort(rectangles, new EmptyRectComparator());
         Collections.reverse(rectangles);
 
+        // Corners added in the current iteration, so they can be taken out again
+        int[] added = new int[8];
+
         while (!rectangles.isEmpty()) {
             EmptyRect big = rectangles.get(0);
-            System.out.print(big.print() + "\n");
 
-            GridSet old = new GridSet(newGrid, grid.getGroundSet());
-            int oldViolations = ArboralChecker.getAllAssViolations(old).size();
+            int oldViolations = ArboralChecker.countAssViolations(newGrid);
 
             boolean c = true;
+            int nAdded = 0;
 
             if (big.volume() < 3) {
                 break;
             }
             if (big.i > 0) {
                 if (big.j > 0) {
-                    c = c && newGrid[big.i - 1][big.j - 1];
-                    newGrid[big.i - 1][big.j - 1] = true;
+                    c = c && newGrid.hasPoint(big.i - 1, big.j - 1);
+                    nAdded = addCorner(newGrid, big.i - 1, big.j - 1, added, nAdded);
                 }
                 if (big.l < height - 1) {
-                    c = c && newGrid[big.i - 1][big.l + 1];
-                    newGrid[big.i - 1][big.l + 1] = true;
+                    c = c && newGrid.hasPoint(big.i - 1, big.l + 1);
+                    nAdded = addCorner(newGrid, big.i - 1, big.l + 1, added, nAdded);
                 }
             }
             if (big.k < width - 1) {
                 if (big.j > 0) {
-                    c = c && newGrid[big.k + 1][big.j - 1];
-                    newGrid[big.k + 1][big.j - 1] = true;
+                    c = c && newGrid.hasPoint(big.k + 1, big.j - 1);
+                    nAdded = addCorner(newGrid, big.k + 1, big.j - 1, added, nAdded);
                 }
                 if (big.l < height - 1) {
-                    c = c && newGrid[big.k + 1][big.l + 1];
-                    newGrid[big.k + 1][big.l + 1] = true;
+                    c = c && newGrid.hasPoint(big.k + 1, big.l + 1);
+                    nAdded = addCorner(newGrid, big.k + 1, big.l + 1, added, nAdded);
                 }
             }
 
-            GridSet newG = new GridSet(newGrid, grid.getGroundSet());
-            int newViolations = ArboralChecker.getAllAssViolations(newG).size();
+            int newViolations = ArboralChecker.countAssViolations(newGrid);
 
             if (newViolations + 5 < oldViolations) {
 
@@ -114,16 +104,30 @@ public class GreedyRectangle {
                 //if (!c)
                 //    break;
             } else {
-                for (int j = 0; j < height; j++) {
-                    for (int i = 0; i < width; i++) {
-                        newGrid[i][j] = old.hasPoint(i, j);
-                    }
+                for (int a = 0; a < nAdded; a += 2) {
+                    newGrid.removePoint(added[a], added[a + 1]);
                 }
                 rectangles.remove(0);
             }
         }
 
-        return new GridSet(newGrid, grid.getGroundSet());
+        return newGrid;
+    }
+
+    /**
+     * Adds (i, j) to the grid and records it in added if it was not there yet.
+     *
+     * @return the new number of entries used in added.
+     */
+    private static int addCorner(GridSet grid, int i, int j, int[] added, int nAdded) {
+        if (grid.hasPoint(i, j)) {
+            return nAdded;
+        }
+
+        grid.addPoint(i, j);
+        added[nAdded] = i;
+        added[nAdded + 1] = j;
+        return nAdded + 2;
     }
 
     /**
@@ -176,7 +180,7 @@ public class GreedyRectangle {
                     + prefix[i - 1][j - 1];
         }
 
-        private void fillCol(GridSet grid, int col) {
+        private void fillCol(GridView grid, int col) {
             prefix[col][0] = 0;
             for (int j = 1; j < height + 1; j++) {
                 prefix[col][j] = -this.getSumP(col, j, col, j);
@@ -186,7 +190,7 @@ public class GreedyRectangle {
             }
         }
 
-        private void fillRow(GridSet grid, int row) {
+        private void fillRow(GridView grid, int row) {
             prefix[0][row] = 0;
             for (int i = 1; i < width + 1; i++) {
                 prefix[i][row] = -this.getSumP(i, row, i, row);
@@ -196,7 +200,7 @@ public class GreedyRectangle {
             }
         }
 
-        public void fillTable(GridSet grid) {
+        public void fillTable(GridView grid) {
             for (int j = 0; j < height + 2; j++) {
                 prefix[0][j] = 0;
             }
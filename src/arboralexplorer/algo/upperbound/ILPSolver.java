@@ -15,34 +15,107 @@
  */
 package arboralexplorer.algo.upperbound;
 
+import arboralexplorer.algo.ArboralChecker;
 import arboralexplorer.algo.CmplUtils;
+import arboralexplorer.algo.Formulation;
+import arboralexplorer.algo.lowerbound.SignedGreedy;
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import arboralexplorer.data.ViolationList;
 import jCMPL.Cmpl;
 import jCMPL.CmplException;
-import jCMPL.CmplParameter;
 import jCMPL.CmplSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 public class ILPSolver {
 
-    public static GridSet solve(GridSet grid) throws CmplException {
+    public static GridSet solve(GridView grid) throws CmplException {
         return solve(grid, false);
     }
 
-    public static GridSet solve(GridSet grid, boolean printOutput) throws CmplException {
-        // Initialize the parameters
-        CmplSet ground = new CmplSet("ground", 2);
-        ground.setValues(CmplUtils.getGroundSetPoints(grid));
+    public static GridSet solve(GridView grid, boolean printOutput) throws CmplException {
+        return solve(grid, Formulation.FULL, printOutput);
+    }
+
+    public static GridSet solveCompact(GridView grid) throws CmplException {
+        return solve(grid, Formulation.COMPACT, false);
+    }
 
-        CmplParameter n = new CmplParameter("n");
-        n.setValues(grid.getWidth());
+    /**
+     * Computes a smallest ASS that contains the ground set of the given grid,
+     * with the given formulation of the integer program.
+     *
+     * @param grid
+     * @param formulation
+     * @param printOutput
+     * @return
+     * @throws CmplException
+     */
+    public static GridSet solve(GridView grid, Formulation formulation, boolean printOutput) throws CmplException {
+        return solve(grid, formulation, 0, 0, printOutput);
+    }
+
+    /**
+     * Computes a small ASS that contains the ground set of the given grid,
+     * with the given formulation of the integer program. The solver stops
+     * after timeLimit seconds, or once its solution is within a factor of
+     * 1 + relativeGap of its lower bound, and returns the best solution it has
+     * by then. A time limit or gap of 0 means no limit.
+     *
+     * The Greedy solution is the starting incumbent: the solver only searches
+     * for smaller solutions, and Greedy is returned if it proves that there
+     * are none, or reaches its limits without finding one. If Greedy matches
+     * the signed greedy lower bound, the solver is not run at all.
+     *
+     * @param grid
+     * @param formulation
+     * @param timeLimit
+     * @param relativeGap
+     * @param printOutput
+     * @return
+     * @throws CmplException if CMPL or the solver fails, or the solver returns
+     * a solution that is not an ASS.
+     * @throws IllegalArgumentException if the time limit or gap is negative.
+     */
+    public static GridSet solve(GridView grid, Formulation formulation, double timeLimit, double relativeGap, boolean printOutput) throws CmplException {
+        if (timeLimit < 0) {
+            throw new IllegalArgumentException("The time limit must be non-negative.");
+        }
+        if (relativeGap < 0) {
+            throw new IllegalArgumentException("The relative gap must be non-negative.");
+        }
 
-        CmplParameter m = new CmplParameter("m");
-        m.setValues(grid.getHeight());
+        GridSet incumbent = GreedyASS.solve(grid);
+        int added = incumbent.getSize() - incumbent.getGroundSetSize();
+        int lowerBound = Math.max(SignedGreedy.countAddedPoints(SignedGreedy.Sign.Positive, grid),
+                SignedGreedy.countAddedPoints(SignedGreedy.Sign.Negative, grid));
+
+        if (printOutput) {
+            System.out.printf("ILP - Greedy adds %d points, the lower bound is %d%n", added, lowerBound);
+        }
+
+        if (added <= lowerBound) {
+            return incumbent;
+        }
 
         // Set up and solve the model
-        Cmpl model = new Cmpl("data/ass2.cmpl");
-        model.setSets(ground);
-        model.setParameters(n, m);
+        Cmpl model = formulation.createIntegerModel(grid);
+
+        // The objective is integral, so this prunes everything that cannot
+        // beat Greedy
+        model.setOption(String.format(Locale.ROOT, "%%opt cbc cutoff %.1f", incumbent.getSize() - 0.5));
+
+        if (timeLimit > 0) {
+            model.setOption(String.format(Locale.ROOT, "%%opt cbc sec %f", timeLimit));
+        }
+        if (relativeGap > 0) {
+            model.setOption(String.format(Locale.ROOT, "%%opt cbc ratioGap %f", relativeGap));
+        }
 
         if (printOutput) {
             model.setOutput(Boolean.TRUE, "ILP - ");
@@ -50,7 +123,125 @@ public class ILPSolver {
 
         model.solve();
 
-        return new GridSet(CmplUtils.extractSolution(model, grid.getWidth(), grid.getHeight()), grid.getGroundSet());
+        if (model.cmplStatus() == Cmpl.CMPL_FAILED || model.solverStatus() != Cmpl.SOLVER_OK) {
+            throw new CmplException("The ILP solver failed: " + model.solverMessage());
+        }
+
+        // The solver finished without a solution below the cutoff, so it
+        // proved that nothing beats Greedy, or ran into its limits
+        if (model.nrOfSolutions() == 0) {
+            return incumbent;
+        }
+
+        String status = model.solution().status();
+
+        if (status.toLowerCase(Locale.ROOT).contains("infeasible")) {
+            return incumbent;
+        }
+
+        boolean stoppedByLimit = status.toLowerCase(Locale.ROOT).contains("limit");
+        GridSet solution = extractValidSolution(model, grid);
+
+        if (solution == null || solution.getSize() >= incumbent.getSize()) {
+            if (stoppedByLimit) {
+                return incumbent;
+            }
+
+            throw new CmplException("The ILP solver returned an invalid solution (" + status + ").");
+        }
+
+        return solution;
+    }
+
+    /**
+     * Returns the solution of the model, or null if it is not an ASS that
+     * contains the ground set.
+     */
+    private static GridSet extractValidSolution(Cmpl model, GridView grid) throws CmplException {
+        boolean[][] points = CmplUtils.extractSolution(model, grid.getWidth(), grid.getHeight());
+
+        for (int j = 0; j < grid.getHeight(); j++) {
+            for (int i = grid.nextGroundSetPointInRow(0, j); i >= 0; i = grid.nextGroundSetPointInRow(i + 1, j)) {
+                if (!points[i][j]) {
+                    return null;
+                }
+            }
+        }
+
+        GridSet solution = new GridSet(points, grid);
+        return ArboralChecker.isArborallySatisfied(solution) ? solution : null;
+    }
+
+    public static GridSet solveLazy(GridView grid) throws CmplException {
+        return solveLazy(grid, false);
+    }
+
+    /**
+     * Computes a smallest ASS that contains the ground set of the given grid,
+     * like {@link #solve(GridView, boolean)}, but with lazy constraint
+     * generation. The model starts out with only the constraints of the
+     * rectangles that are violated by the ground set. After every solve, the
+     * constraints of the rectangles that are violated by the solution are
+     * added, until the solution is an ASS. As every added constraint is one of
+     * the full model, the result is optimal for the full model as well.
+     *
+     * @param grid
+     * @param printOutput
+     * @return
+     * @throws CmplException
+     */
+    public static GridSet solveLazy(GridView grid, boolean printOutput) throws CmplException {
+        // The rectangles with constraints, by their lower left and upper right
+        // corners: rising for the pair of those corners, falling for the pair
+        // of the other two
+        List<int[]> rising = new ArrayList<>();
+        List<int[]> falling = new ArrayList<>();
+        Set<List<Integer>> added = new HashSet<>();
+
+        GridSet solution = GridSet.copyGroundSet(grid);
+        ViolationList violations = ArboralChecker.getAllAssViolations(solution);
+
+        for (int round = 1; !violations.isEmpty(); round++) {
+            for (ViolationList.Cursor v = violations.cursor(); v.next();) {
+                // The model is 1-based, and x1 < x2
+                int i1 = v.x1() + 1, i2 = v.x2() + 1;
+                int j1 = Math.min(v.y1(), v.y2()) + 1, j2 = Math.max(v.y1(), v.y2()) + 1;
+                List<Integer> rectangle = Arrays.asList(v.y1() < v.y2() ? 1 : 0, i1, j1, i2, j2);
+
+                if (added.add(rectangle)) {
+                    (v.y1() < v.y2() ? rising : falling).add(new int[]{i1, j1, i2, j2});
+                }
+            }
+
+            Cmpl model = CmplUtils.createModel("data/assLazy.cmpl", grid);
+            model.setSets(rectangleSet("rising", rising), rectangleSet("falling", falling));
+
+            if (printOutput) {
+                System.out.printf("Lazy ILP round %d: %d rectangles%n", round, added.size());
+                model.setOutput(Boolean.TRUE, "ILP - ");
+            }
+
+            model.solve();
+
+            solution = new GridSet(CmplUtils.extractSolution(model, grid.getWidth(), grid.getHeight()), grid);
+            violations = ArboralChecker.getAllAssViolations(solution);
+        }
+
+        return solution;
+    }
+
+    private static CmplSet rectangleSet(String name, List<int[]> rectangles) throws CmplException {
+        CmplSet set = new CmplSet(name, 4);
+
+        if (rectangles.isEmpty()) {
+            // CMPL does not accept empty sets. Every ASS satisfies the
+            // constraints of every rectangle, so any rectangle will do.
+            set.setValues(new int[][]{{1, 1, 2, 2}});
+        } else {
+            set.setValues(rectangles.toArray(new int[rectangles.size()][]));
+        }
+
+        return set;
     }
 
     private ILPSolver() {
@@ -16,8 +16,8 @@
 package arboralexplorer.algo.upperbound;
 
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -34,18 +34,14 @@ public class IncreasingSS {
      * @param grid
      * @return
      */
-    public static GridSet solve(GridSet grid) {
+    public static GridSet solve(GridView grid) {
         
         LISS(grid);
         
-        int width = grid.getWidth(), height = grid.getHeight();
-        boolean[][] newGrid = new boolean[width][height];
-
-        //return new GridSet(newGrid, grid.getGroundSet());
-        return grid;
+        return new GridSet(grid);
     }
 
-    public static int[] LISS(GridSet grid) {
+    public static int[] LISS(GridView grid) {
 
         int[] input = new int[grid.getHeight()];
         int[] map = new int[grid.getHeight()];
@@ -65,9 +61,6 @@ public class IncreasingSS {
                 }
             }
         }
-        
-        System.out.print(Arrays.toString(map) + "\n");
-        System.out.print(Arrays.toString(mapinv) + "\n");
 
         // Create the sequence based on non-empty rows only.
         int[] seq = new int[count];
@@ -126,16 +119,13 @@ public class IncreasingSS {
             ptr = ptrs[ptr];
         }
         Collections.reverse(longest);
-        System.out.print(longest + "\n");
 
         // Map the indices back to original grid space.
         int[] output = new int[longest.size()];
         for(int j = 0; j < longest.size(); j ++) {
             output[j] = map[longest.get(j)];
         }
-        
-        System.out.print(Arrays.toString(output) + "\n");
-        
+
         return output;
     }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to non-negative int values, with open addressing
+ * and linear probing, that does not box its keys or values.
+ */
+final class LongIntHashMap {
+
+    private static final int ABSENT = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size = 0;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map that can hold the given number of entries without
+     * growing.
+     *
+     * @param expectedSize
+     */
+    LongIntHashMap(int expectedSize) {
+        int capacity = 16;
+
+        while (capacity < 2 * expectedSize) {
+            capacity *= 2;
+        }
+
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, ABSENT);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the given key, or -1 if the map does not contain
+     * it.
+     *
+     * @param key
+     * @return
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+
+        for (int slot = hash(key) & mask; values[slot] != ABSENT; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+
+        return ABSENT;
+    }
+
+    /**
+     * Maps the given key to the given value.
+     *
+     * @param key
+     * @param value
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must be non-negative.");
+        }
+
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+
+        if (2 * size > keys.length) {
+            grow();
+        }
+    }
+
+    void clear() {
+        Arrays.fill(values, ABSENT);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new long[2 * oldKeys.length];
+        values = new int[2 * oldValues.length];
+        Arrays.fill(values, ABSENT);
+        size = 0;
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != ABSENT) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        // The finalizer of MurmurHash3
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
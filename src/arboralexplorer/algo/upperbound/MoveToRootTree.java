@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+
+/**
+ * Simulates the move-to-root heuristic of Allen and Munro on the keys
+ * 0..n - 1, starting from a balanced tree: every accessed key is rotated to the
+ * root with single rotations.
+ */
+public class MoveToRootTree extends ArrayBST {
+
+    /**
+     * Returns a superset of the given grid without ASS-violations: the points
+     * touched by move-to-root when it accesses the ground set points, row by
+     * row, and from left to right within a row.
+     *
+     * @param grid
+     * @return
+     */
+    public static GridSet solve(GridView grid) {
+        return solve(grid, new MoveToRootTree(grid.getWidth(), true));
+    }
+
+    /**
+     * Returns the total number of nodes touched by move-to-root when it
+     * accesses the given keys in order.
+     *
+     * @param n the number of keys
+     * @param accesses
+     * @return
+     */
+    public static long cost(int n, int[] accesses) {
+        return cost(new MoveToRootTree(n, false), accesses);
+    }
+
+    /**
+     * Creates a balanced tree on the keys 0..n - 1. If recordTouched is false,
+     * only the total cost is kept track of.
+     *
+     * @param n
+     * @param recordTouched
+     */
+    public MoveToRootTree(int n, boolean recordTouched) {
+        super(n, recordTouched);
+    }
+
+    @Override
+    protected void execute(int key) {
+        search(key);
+
+        while (parent(key) != NIL) {
+            rotate(key);
+        }
+    }
+}
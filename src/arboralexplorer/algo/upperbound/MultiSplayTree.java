@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+
+/**
+ * Simulates a multi-splay tree (Wang, Derryberry and Sleator) on the keys
+ * 0..n - 1: a Tango tree whose auxiliary trees are splay trees. Cuts and joins
+ * splay the nodes involved within their auxiliary tree, and every access ends
+ * by splaying the accessed key to the root, whose auxiliary tree holds the
+ * whole path to it.
+ */
+public class MultiSplayTree extends PreferredPathTree {
+
+    /**
+     * Returns a superset of the given grid without ASS-violations: the points
+     * touched by a multi-splay tree that accesses the ground set points, row
+     * by row, and from left to right within a row.
+     *
+     * @param grid
+     * @return
+     */
+    public static GridSet solve(GridView grid) {
+        return solve(grid, new MultiSplayTree(grid.getWidth(), true));
+    }
+
+    /**
+     * Returns the total number of nodes touched by a multi-splay tree that
+     * accesses the given keys in order.
+     *
+     * @param n the number of keys
+     * @param accesses
+     * @return
+     */
+    public static long cost(int n, int[] accesses) {
+        return cost(new MultiSplayTree(n, false), accesses);
+    }
+
+    /**
+     * Creates a multi-splay tree on the keys 0..n - 1, whose reference tree
+     * is balanced and has no preferred children yet. If recordTouched is
+     * false, only the total cost is kept track of.
+     *
+     * @param n
+     * @param recordTouched
+     */
+    public MultiSplayTree(int n, boolean recordTouched) {
+        super(n, recordTouched);
+    }
+
+    @Override
+    protected void raise(int x, int stop) {
+        while (!isAuxRoot(x) && parent(x) != stop) {
+            int p = parent(x);
+
+            if (!isAuxRoot(p) && parent(p) != stop) {
+                int g = parent(p);
+
+                if ((left(g) == p) == (left(p) == x)) {
+                    rotate(p); // zig-zig
+                } else {
+                    rotate(x); // zig-zag
+                }
+            }
+
+            rotate(x);
+        }
+    }
+
+    @Override
+    protected void afterSwitch(int y) {
+    }
+
+    @Override
+    protected void afterAccess(int key) {
+        raise(key, NIL);
+    }
+}
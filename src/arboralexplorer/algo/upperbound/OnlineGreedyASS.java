@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.algo.MaxSegmentTree;
+import java.util.Arrays;
+
+/**
+ * Runs Greedy one row at a time, without storing the grid. The only state is
+ * the last row in which each column was touched, kept in a segment tree. For
+ * every accessed key, the columns Greedy touches are exactly the new maxima of
+ * this staircase when walking away from the key, and each of them is found
+ * with a single O(log n) query. A row with k touched points therefore takes
+ * O(k log n) time.
+ *
+ * The rows produced are the same as those of {@link GreedyASS#solve}.
+ */
+public class OnlineGreedyASS {
+
+    private final int keys;
+    private final boolean recordTouched;
+    private final MaxSegmentTree lastTouched;
+    private int row = 0;
+    private long cost = 0;
+    private int[] touched = new int[16];
+    private int touchedCount = 0;
+    private final int[] single = new int[1];
+
+    /**
+     * Creates a new engine for the keys 0..keys - 1 that records which keys
+     * are touched in each row.
+     *
+     * @param keys
+     */
+    public OnlineGreedyASS(int keys) {
+        this(keys, true);
+    }
+
+    /**
+     * Creates a new engine for the keys 0..keys - 1. If recordTouched is
+     * false, only the number of touched points is kept track of.
+     *
+     * @param keys
+     * @param recordTouched
+     */
+    public OnlineGreedyASS(int keys, boolean recordTouched) {
+        if (keys <= 0) {
+            throw new IllegalArgumentException("The number of keys must be positive.");
+        }
+
+        this.keys = keys;
+        this.recordTouched = recordTouched;
+
+        int[] initial = new int[keys];
+        Arrays.fill(initial, -1);
+        lastTouched = new MaxSegmentTree(initial);
+    }
+
+    /**
+     * Processes a row with a single access to the given key.
+     *
+     * @param key
+     * @return the number of points touched in this row.
+     */
+    public int access(int key) {
+        single[0] = key;
+        return accessRow(single, 1);
+    }
+
+    /**
+     * Processes a row in which the keys accessed[0..count) are accessed. The
+     * keys must be sorted in increasing order, without duplicates.
+     *
+     * @param accessed
+     * @param count
+     * @return the number of points touched in this row, including the
+     * accessed ones.
+     */
+    public int accessRow(int[] accessed, int count) {
+        touchedCount = 0;
+        int touchedInRow = 0;
+        int previous = -1;
+
+        for (int a = 0; a < count; a++) {
+            int i = accessed[a];
+
+            if (i <= previous || i >= keys) {
+                throw new IllegalArgumentException("Accessed keys must be sorted, distinct and in range, but got " + i + " after " + previous + ".");
+            }
+
+            int end = (a + 1 < count ? accessed[a + 1] : keys);
+
+            // Walk left, up to the previous access in this row
+            int lowest = lastTouched.get(i);
+
+            for (int k = lastTouched.lastAbove(previous + 1, i - 1, lowest); k >= 0; k = lastTouched.lastAbove(previous + 1, k - 1, lowest)) {
+                lowest = lastTouched.get(k);
+
+                if (lowest < row) { // Not yet touched in this row
+                    touchedInRow++;
+                    record(k);
+                    lastTouched.set(k, row);
+                }
+            }
+
+            // Walk right, up to the next access in this row
+            lowest = lastTouched.get(i);
+
+            for (int k = lastTouched.firstAbove(i + 1, end - 1, lowest); k >= 0; k = lastTouched.firstAbove(k + 1, end - 1, lowest)) {
+                lowest = lastTouched.get(k);
+
+                if (lowest < row) {
+                    touchedInRow++;
+                    record(k);
+                    lastTouched.set(k, row);
+                }
+            }
+
+            touchedInRow++;
+            record(i);
+            lastTouched.set(i, row);
+            previous = i;
+        }
+
+        row++;
+        cost += touchedInRow;
+
+        return touchedInRow;
+    }
+
+    /**
+     * Returns the number of keys touched in the last row, or 0 if the touched
+     * keys are not recorded.
+     *
+     * @return
+     */
+    public int getTouchedCount() {
+        return touchedCount;
+    }
+
+    /**
+     * Returns the index-th key touched in the last row. The keys are not
+     * sorted.
+     *
+     * @param index
+     * @return
+     */
+    public int getTouched(int index) {
+        if (index < 0 || index >= touchedCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + touchedCount + ").");
+        }
+
+        return touched[index];
+    }
+
+    /**
+     * Returns the number of rows processed so far.
+     *
+     * @return
+     */
+    public int getRows() {
+        return row;
+    }
+
+    /**
+     * Returns the total number of points touched so far, including the
+     * accessed ones.
+     *
+     * @return
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    private void record(int key) {
+        if (!recordTouched) {
+            return;
+        }
+
+        if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, 2 * touched.length);
+        }
+
+        touched[touchedCount] = key;
+        touchedCount++;
+    }
+}
@@ -16,6 +16,7 @@
 package arboralexplorer.algo.upperbound;
 
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import java.util.Arrays;
 
 public class OptStaticTree {
@@ -26,18 +27,18 @@ public class OptStaticTree {
      * @param grid
      * @return
      */
-    public static GridSet solve(GridSet grid) {
+    public static GridSet solve(GridView grid) {
         return (new OptStaticTree(grid)).computeBestTree();
     }
 
     private static final int NOT_COMPUTED = -1;
 
-    private GridSet grid;
+    private GridView grid;
     private int[][] bestCostForSubtree; // contains elements in [i, j)
     private int[][] bestRootForSubtree;
     private int[][] rootCostForSubtree; // Number of times at which elements in this subtree are accessed
 
-    private OptStaticTree(GridSet grid) {
+    private OptStaticTree(GridView grid) {
         this.grid = grid;
         bestCostForSubtree = new int[grid.getWidth() + 1][grid.getWidth() + 1];
         bestRootForSubtree = new int[grid.getWidth() + 1][grid.getWidth() + 1];
@@ -46,10 +47,8 @@ public class OptStaticTree {
         int[] frequency = new int[grid.getWidth()]; // The number of times each point is queried
 
         for (int i = 0; i < grid.getWidth(); i++) {
-            for (int j = 0; j < grid.getHeight(); j++) {
-                if (grid.isGroundSet(i, j)) {
-                    frequency[i]++;
-                }
+            for (int j = grid.nextGroundSetPointInColumn(i, 0); j >= 0; j = grid.nextGroundSetPointInColumn(i, j + 1)) {
+                frequency[i]++;
             }
         }
 
@@ -70,11 +69,10 @@ public class OptStaticTree {
         for (int lower = 0; lower < grid.getWidth(); lower++) {
             for (int upper = lower + 2; upper <= grid.getWidth(); upper++) {
                 for (int j = 0; j < grid.getHeight(); j++) {
-                    for (int i = lower; i < upper; i++) {
-                        if (grid.isGroundSet(i, j)) {
-                            rootCostForSubtree[lower][upper]++;
-                            break; // Go to the next row
-                        }
+                    int i = grid.nextGroundSetPointInRow(lower, j);
+
+                    if (i >= 0 && i < upper) {
+                        rootCostForSubtree[lower][upper]++;
                     }
                 }
             }
@@ -115,23 +113,22 @@ public class OptStaticTree {
     }
 
     private GridSet computeBestTree() {
-        boolean[][] newGrid = new boolean[grid.getWidth()][grid.getHeight()];
+        GridSet newGrid = GridSet.copyGroundSet(grid);
 
         markTree(newGrid, 0, grid.getWidth());
 
-        return new GridSet(newGrid, grid.getGroundSet());
+        return newGrid;
     }
 
-    private void markTree(boolean[][] newGrid, int lower, int upper) {
+    private void markTree(GridSet newGrid, int lower, int upper) {
         // Mark the root
         int root = bestRootForSubtree[lower][upper];
 
         for (int j = 0; j < grid.getHeight(); j++) {
-            for (int i = lower; i < upper; i++) {
-                if (grid.isGroundSet(i, j)) {
-                    newGrid[root][j] = true;
-                    break; // Go to the next row
-                }
+            int i = grid.nextGroundSetPointInRow(lower, j);
+
+            if (i >= 0 && i < upper) {
+                newGrid.addPoint(root, j);
             }
         }
 
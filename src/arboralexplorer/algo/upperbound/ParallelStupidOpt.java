@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.algo.ArboralChecker;
+import arboralexplorer.algo.SolverContext;
+import arboralexplorer.data.ArrayGridView;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import arboralexplorer.data.ViolationList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The search of {@link StupidOpt}, split into fork/join tasks. Every task
+ * owns a copy of the grid and of the remaining violations, and the only
+ * shared state is the number of points added by the best solution so far.
+ *
+ * A task forks the branch that adds the point at its cell while the pool
+ * has few queued tasks, and runs both branches itself otherwise, so the
+ * search tree is only split where there is work to steal.
+ *
+ * Every branch is given a share of a fixed amount of work, which is split in
+ * half at every decision, and which is counted as done when the branch is
+ * finished or pruned. This gives the progress.
+ */
+class ParallelStupidOpt {
+
+    private static final int PROGRESS_DEPTH = 30;
+    private static final int MAX_SPLIT_DEPTH = 40;
+    private static final int MAX_SURPLUS_TASKS = 2;
+
+    private final boolean[][] groundSet;
+    private final int width, totalGridSize;
+    private final SolverContext context;
+    private final AtomicInteger bestBound;
+    private boolean[][] bestGrid = null; // Guarded by this
+    private final long totalWork;
+    private final AtomicLong work = new AtomicLong();
+    private final AtomicInteger reportedProgress = new AtomicInteger();
+
+    static GridSet solve(GridView inputGrid, SolverContext context, ForkJoinPool pool) {
+        return new ParallelStupidOpt(inputGrid, context).solve(inputGrid, pool);
+    }
+
+    private ParallelStupidOpt(GridView inputGrid, SolverContext context) {
+        this.groundSet = GridSet.copyGroundSet(inputGrid).getGroundSet();
+        this.width = inputGrid.getWidth();
+        this.totalGridSize = inputGrid.getWidth() * inputGrid.getHeight();
+        this.context = context;
+        this.bestBound = new AtomicInteger(Integer.MAX_VALUE);
+        this.totalWork = 1L << Math.min(PROGRESS_DEPTH, totalGridSize - inputGrid.getGroundSetSize());
+    }
+
+    private GridSet solve(GridView inputGrid, ForkJoinPool pool) {
+        // Compute a reasonable upper bound
+        GridSet greedySolution = GreedyASS.solve(inputGrid);
+        bestBound.set(greedySolution.getSize() - greedySolution.getGroundSetSize());
+        context.publish(greedySolution);
+
+        // Compute the optimum
+        boolean[][] workingCopy = GridSet.copyGrid(groundSet);
+        ViolationList violations = ArboralChecker.getAllAssViolations(groundSet);
+
+        pool.invoke(new SearchTask(workingCopy, violations, 0, 0, 0, totalWork));
+
+        synchronized (this) {
+            if (bestGrid == null) {
+                // Greedy was optimal
+                return greedySolution;
+            } else {
+                return new GridSet(bestGrid, groundSet);
+            }
+        }
+    }
+
+    private void offer(boolean[][] grid, int addedPoints) {
+        synchronized (this) {
+            if (addedPoints >= bestBound.get()) {
+                return;
+            }
+
+            bestGrid = GridSet.copyGrid(grid);
+            bestBound.set(addedPoints);
+        }
+
+        context.publish(new GridSet(grid, groundSet));
+    }
+
+    private void addWork(long amount) {
+        if (amount == 0) {
+            // Most of the search is too deep to count, so avoid contention
+            return;
+        }
+
+        long done = work.addAndGet(amount);
+        int progress = (int) (100 * done / totalWork);
+        int reported = reportedProgress.get();
+
+        if (progress > reported && reportedProgress.compareAndSet(reported, progress)) {
+            context.setProgress(progress);
+        }
+    }
+
+    private class SearchTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean[][] newGrid;
+        private final GridView gridView;
+        private final ViolationList startViolations;
+        private final int startAdded, startPos, startDepth;
+        private final long startWork;
+
+        /**
+         * Searches all ways to add points at the positions pos and later,
+         * where depth decisions have already been made, and where this part
+         * of the search is worth the given amount of work.
+         */
+        SearchTask(boolean[][] newGrid, ViolationList violations, int addedPoints, int pos, int depth, long work) {
+            this.newGrid = newGrid;
+            this.gridView = new ArrayGridView(newGrid);
+            this.startViolations = violations;
+            this.startAdded = addedPoints;
+            this.startPos = pos;
+            this.startDepth = depth;
+            this.startWork = work;
+        }
+
+        @Override
+        protected void compute() {
+            search(startViolations, startAdded, startPos, startDepth, startWork);
+        }
+
+        private void search(ViolationList violations, int addedPoints, int pos, int depth, long work) {
+            if (context.isCancelled()) {
+                return;
+            }
+
+            int bound = bestBound.get();
+
+            if (addedPoints >= bound) {
+                addWork(work);
+                return;
+            }
+            if (violations.isEmpty()) {
+                offer(newGrid, addedPoints);
+                addWork(work);
+                return;
+            }
+
+            // Every remaining violation needs a new point
+            int remaining = Math.max(1, RemainingCostBound.lowerBound(violations, width, pos, bound - addedPoints));
+
+            if (pos == totalGridSize || remaining >= bound - addedPoints) {
+                addWork(work);
+                return;
+            }
+
+            int i = pos % width;
+            int j = pos / width;
+
+            if (groundSet[i][j]) {
+                search(violations, addedPoints, pos + 1, depth, work);
+                return;
+            }
+
+            long childWork = work / 2;
+
+            if (depth < MAX_SPLIT_DEPTH && getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS) {
+                // Let another thread add the point (i, j)
+                boolean[][] withGrid = GridSet.copyGrid(newGrid);
+                withGrid[i][j] = true;
+                ViolationList withViolations = new ViolationList(violations);
+                ArboralChecker.pointAdded(new ArrayGridView(withGrid), withViolations, i, j);
+
+                SearchTask with = new SearchTask(withGrid, withViolations, addedPoints + 1, pos + 1, depth + 1, childWork);
+                with.fork();
+
+                search(violations, addedPoints, pos + 1, depth + 1, childWork);
+                with.join();
+            } else {
+                search(violations, addedPoints, pos + 1, depth + 1, childWork);
+
+                // Add the point (i, j)
+                newGrid[i][j] = true;
+                ViolationList withViolations = new ViolationList(violations);
+                ArboralChecker.pointAdded(gridView, withViolations, i, j);
+
+                search(withViolations, addedPoints + 1, pos + 1, depth + 1, childWork);
+
+                // Restore state
+                newGrid[i][j] = false;
+            }
+
+            if (childWork == 0) {
+                addWork(work);
+            }
+        }
+    }
+}
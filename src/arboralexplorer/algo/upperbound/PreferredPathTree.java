@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import java.util.Arrays;
+
+/**
+ * Common part of Tango and multi-splay trees. Both fix a balanced reference
+ * tree, with the same shape as the initial tree, and give every reference node
+ * a preferred child: the side of its most recent access. The preferred paths
+ * this creates are each stored in an auxiliary tree, and the auxiliary trees
+ * are linked together into a single BST. A node is the root of its auxiliary
+ * tree if its auxRoot flag is set.
+ *
+ * An access searches for the key and then changes the preferred child of every
+ * reference ancestor that does not point towards the key, from the bottom up.
+ * Changing the preferred child of y cuts the old child's part of the path out
+ * of y's auxiliary tree and joins the new child's path into it. With y at the
+ * root of its auxiliary tree, each of these parts is a single subtree, found by
+ * bringing the nearest ancestor outside the interval of y's reference subtree
+ * just below y. Subclasses decide how nodes are brought up and how the
+ * auxiliary trees are rebalanced afterwards.
+ */
+abstract class PreferredPathTree extends ArrayBST {
+
+    private static final byte NONE = 0, LEFT = 1, RIGHT = 2;
+    private static final int MAX_DEPTH = 64;
+
+    private final boolean[] auxRoot;
+    private final byte[] preferred;
+    // The reference nodes whose preferred child changes in the current access,
+    // with the interval [lowerBound, upperBound) of their reference subtree
+    private final int[] switchNode = new int[MAX_DEPTH];
+    private final int[] switchLowerBound = new int[MAX_DEPTH];
+    private final int[] switchUpperBound = new int[MAX_DEPTH];
+    private final byte[] switchSide = new byte[MAX_DEPTH];
+
+    PreferredPathTree(int n, boolean recordTouched) {
+        super(n, recordTouched);
+
+        auxRoot = new boolean[n];
+        preferred = new byte[n];
+        Arrays.fill(auxRoot, true);
+    }
+
+    @Override
+    protected void execute(int key) {
+        search(key);
+
+        // Find the reference ancestors whose preferred child changes
+        int switches = 0;
+        int lowerBound = 0, upperBound = n;
+        int node = lowerBound + (upperBound - lowerBound - 1) / 2;
+
+        while (node != key) {
+            byte side = (key < node ? LEFT : RIGHT);
+
+            if (preferred[node] != side) {
+                switchNode[switches] = node;
+                switchLowerBound[switches] = lowerBound;
+                switchUpperBound[switches] = upperBound;
+                switchSide[switches] = side;
+                switches++;
+            }
+
+            if (side == LEFT) {
+                upperBound = node;
+            } else {
+                lowerBound = node + 1;
+            }
+
+            node = lowerBound + (upperBound - lowerBound - 1) / 2;
+        }
+
+        for (int s = switches - 1; s >= 0; s--) {
+            switchPreferredChild(switchNode[s], switchLowerBound[s], switchUpperBound[s], switchSide[s]);
+        }
+
+        afterAccess(key);
+    }
+
+    /**
+     * Rotates x up within its auxiliary tree until its parent is stop, or it
+     * is the root of its auxiliary tree.
+     *
+     * @param x
+     * @param stop
+     */
+    protected abstract void raise(int x, int stop);
+
+    /**
+     * Restores the shape invariant of the auxiliary tree rooted at y, whose
+     * children just received new subtrees.
+     *
+     * @param y
+     */
+    protected abstract void afterSwitch(int y);
+
+    /**
+     * Called at the end of every access.
+     *
+     * @param key
+     */
+    protected abstract void afterAccess(int key);
+
+    /**
+     * Returns true if x is a node in the same auxiliary tree as its parent.
+     *
+     * @param x
+     * @return
+     */
+    protected final boolean inAuxTree(int x) {
+        return x != NIL && !auxRoot[x];
+    }
+
+    protected final boolean isAuxRoot(int x) {
+        return auxRoot[x];
+    }
+
+    @Override
+    protected void rotate(int x) {
+        int p = parent(x);
+
+        if (auxRoot[p]) {
+            auxRoot[p] = false;
+            auxRoot[x] = true;
+        }
+
+        super.rotate(x);
+    }
+
+    private void switchPreferredChild(int y, int lowerBound, int upperBound, byte side) {
+        raise(y, NIL);
+
+        if (preferred[y] != NONE) {
+            int cut = childPath(y, lowerBound, upperBound, preferred[y]);
+            touch(cut);
+            auxRoot[cut] = true;
+        }
+
+        int join = childPath(y, lowerBound, upperBound, side);
+        touch(join);
+        auxRoot[join] = false;
+
+        preferred[y] = side;
+        afterSwitch(y);
+    }
+
+    /**
+     * Returns the root of the subtree holding exactly the keys of the given
+     * child of y in the reference tree, where y is the root of its auxiliary
+     * tree.
+     */
+    private int childPath(int y, int lowerBound, int upperBound, byte side) {
+        if (side == LEFT) {
+            // The ancestor just before the reference subtree of y is the
+            // largest key below lowerBound in y's auxiliary tree, if any
+            int before = NIL;
+
+            for (int v = left(y); inAuxTree(v);) {
+                touch(v);
+
+                if (v < lowerBound) {
+                    before = v;
+                    v = right(v);
+                } else {
+                    v = left(v);
+                }
+            }
+
+            if (before == NIL) {
+                return left(y);
+            }
+
+            raise(before, y);
+            return right(before);
+        } else {
+            int after = NIL;
+
+            for (int v = right(y); inAuxTree(v);) {
+                touch(v);
+
+                if (v >= upperBound) {
+                    after = v;
+                    v = left(v);
+                } else {
+                    v = right(v);
+                }
+            }
+
+            if (after == NIL) {
+                return right(y);
+            }
+
+            raise(after, y);
+            return left(after);
+        }
+    }
+}
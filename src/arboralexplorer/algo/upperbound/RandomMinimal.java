@@ -16,10 +16,10 @@
 package arboralexplorer.algo.upperbound;
 
 import arboralexplorer.Pair;
-import arboralexplorer.algo.ArboralChecker;
+import arboralexplorer.algo.CriticalityIndex;
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -30,43 +30,48 @@ public class RandomMinimal {
     /**
      * Returns a superset of the given grid without ASS-violations.
      *
-     * TODO: maintain the neighbourly grid and criticality, instead of recomputing every round
+     * Starts from the full grid and repeatedly removes a random subcritical
+     * point that is not in the ground set, until none are left. The
+     * criticality of the points is maintained by a CriticalityIndex.
      * 
      * @param grid
      * @return
      */
-    public static GridSet solve(GridSet grid) {
-        List<Pair<Integer,Integer>> groundSet = getGroundSetPoints(grid);
-        boolean[][] newGrid = new boolean[grid.getWidth()][grid.getHeight()];
+    public static GridSet solve(GridView grid) {
+        GridSet newGrid = new GridSet(grid.getWidth(), grid.getHeight());
         
         // Add all points
-        for (boolean[] newGridColumn : newGrid) {
-            Arrays.fill(newGridColumn, true);
+        for (int i = 0; i < grid.getWidth(); i++) {
+            for (int j = 0; j < grid.getHeight(); j++) {
+                if (grid.isGroundSet(i, j)) {
+                    newGrid.addToGroundSet(i, j);
+                } else {
+                    newGrid.addPoint(i, j);
+                }
+            }
         }
         
-        List<Pair<Integer,Integer>> subCriticalPoints = ArboralChecker.getAllSubCriticalPoints(newGrid);
-        subCriticalPoints.removeAll(groundSet);
+        CriticalityIndex criticality = new CriticalityIndex(newGrid);
         
-        while (!subCriticalPoints.isEmpty()) {
+        while (criticality.getSubCriticalCount() > 0) {
             // Remove a random subcritical point
-            Pair<Integer, Integer> toRemove = subCriticalPoints.get(rand.nextInt(subCriticalPoints.size()));
-            newGrid[toRemove.getFirst()][toRemove.getSecond()] = false;
+            int index = rand.nextInt(criticality.getSubCriticalCount());
+            int i = criticality.getSubCriticalColumn(index);
+            int j = criticality.getSubCriticalRow(index);
             
-            subCriticalPoints = ArboralChecker.getAllSubCriticalPoints(newGrid);
-            subCriticalPoints.removeAll(groundSet);
+            newGrid.removePoint(i, j);
+            criticality.removePoint(i, j);
         }
         
-        return new GridSet(newGrid, grid.getGroundSet());
+        return newGrid;
     }
     
-    public static List<Pair<Integer,Integer>> getGroundSetPoints(GridSet grid) {
+    public static List<Pair<Integer,Integer>> getGroundSetPoints(GridView grid) {
         List<Pair<Integer,Integer>> groundSetPoints = new ArrayList<>(grid.getGroundSetSize());
         
         for (int i = 0; i < grid.getWidth(); i++) {
-            for (int j = 0; j < grid.getHeight(); j++) {
-                if (grid.isGroundSet(i, j)) {
-                    groundSetPoints.add(new Pair<>(i, j));
-                }
+            for (int j = grid.nextGroundSetPointInColumn(i, 0); j >= 0; j = grid.nextGroundSetPointInColumn(i, j + 1)) {
+                groundSetPoints.add(new Pair<>(i, j));
             }
         }
         
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.data.ViolationList;
+import java.util.Arrays;
+
+/**
+ * A lower bound on the number of points an exhaustive search still has to
+ * add. The search decides the cells in row-major order, so only the cells from
+ * the current position on can still receive a point. Every remaining
+ * violation needs a new point in the undecided part of its rectangle, and
+ * violations whose undecided parts are disjoint need different points. The
+ * bound is the size of a set of such disjoint violations, chosen greedily from
+ * the smallest undecided part up.
+ */
+final class RemainingCostBound {
+
+    private RemainingCostBound() {
+    }
+
+    /**
+     * Returns a lower bound on the number of points that need to be added at
+     * position pos or later to resolve the given violations, or
+     * Integer.MAX_VALUE if one of them can no longer be resolved. Stops
+     * counting once the bound reaches limit.
+     *
+     * @param violations violations of the current grid
+     * @param width the width of the grid
+     * @param pos the first undecided position, in row-major order
+     * @param limit
+     * @return
+     */
+    static int lowerBound(ViolationList violations, int width, int pos, int limit) {
+        int count = violations.size();
+
+        if (count == 0 || limit <= 0) {
+            return 0;
+        }
+
+        int row = pos / width, column = pos % width;
+
+        // Sort the violations by the size of their undecided part
+        long[] order = new long[count];
+
+        for (int v = 0; v < count; v++) {
+            int x1 = Math.min(violations.getX1(v), violations.getX2(v));
+            int x2 = Math.max(violations.getX1(v), violations.getX2(v));
+            int y1 = Math.min(violations.getY1(v), violations.getY2(v));
+            int y2 = Math.max(violations.getY1(v), violations.getY2(v));
+
+            long area = 0;
+
+            if (y2 > row) {
+                area += (long) (x2 - x1 + 1) * (y2 - Math.max(y1, row + 1) + 1);
+            }
+            if (y1 <= row && row <= y2 && x2 >= column) {
+                area += x2 - Math.max(x1, column) + 1;
+            }
+
+            if (area == 0) {
+                return Integer.MAX_VALUE;
+            }
+
+            order[v] = (area << 32) | v;
+        }
+
+        Arrays.sort(order);
+
+        // Greedily pick violations whose undecided parts are disjoint
+        int[] chosen = new int[4 * Math.min(count, limit)];
+        int bound = 0;
+
+        for (int k = 0; k < count && bound < limit; k++) {
+            int v = (int) order[k];
+            int x1 = Math.min(violations.getX1(v), violations.getX2(v));
+            int x2 = Math.max(violations.getX1(v), violations.getX2(v));
+            int y1 = Math.min(violations.getY1(v), violations.getY2(v));
+            int y2 = Math.max(violations.getY1(v), violations.getY2(v));
+            boolean disjoint = true;
+
+            for (int c = 0; c < bound && disjoint; c++) {
+                int ix1 = Math.max(x1, chosen[4 * c]);
+                int ix2 = Math.min(x2, chosen[4 * c + 1]);
+                int iy1 = Math.max(y1, chosen[4 * c + 2]);
+                int iy2 = Math.min(y2, chosen[4 * c + 3]);
+
+                // Does the intersection contain an undecided cell?
+                if (ix1 <= ix2 && iy1 <= iy2 && (iy2 > row || (iy2 == row && ix2 >= column))) {
+                    disjoint = false;
+                }
+            }
+
+            if (disjoint) {
+                chosen[4 * bound] = x1;
+                chosen[4 * bound + 1] = x2;
+                chosen[4 * bound + 2] = y1;
+                chosen[4 * bound + 3] = y2;
+                bound++;
+            }
+        }
+
+        return bound;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+
+/**
+ * Simulates a splay tree on the keys 0..n - 1, starting from a balanced tree.
+ * Every access touches the nodes on the search path to the accessed key, which
+ * are exactly the nodes the splay rotates.
+ */
+public class SplayTree extends ArrayBST {
+
+    /**
+     * Returns a superset of the given grid without ASS-violations: the points
+     * touched by a splay tree that accesses the ground set points, row by row,
+     * and from left to right within a row.
+     *
+     * @param grid
+     * @return
+     */
+    public static GridSet solve(GridView grid) {
+        return solve(grid, new SplayTree(grid.getWidth(), true));
+    }
+
+    /**
+     * Returns the total number of nodes touched by a splay tree that accesses
+     * the given keys in order.
+     *
+     * @param n the number of keys
+     * @param accesses
+     * @return
+     */
+    public static long cost(int n, int[] accesses) {
+        return cost(new SplayTree(n, false), accesses);
+    }
+
+    /**
+     * Creates a balanced splay tree on the keys 0..n - 1. If recordTouched is
+     * false, only the total cost is kept track of.
+     *
+     * @param n
+     * @param recordTouched
+     */
+    public SplayTree(int n, boolean recordTouched) {
+        super(n, recordTouched);
+    }
+
+    @Override
+    protected void execute(int key) {
+        search(key);
+        splay(key);
+    }
+
+    private void splay(int x) {
+        while (parent(x) != NIL) {
+            int p = parent(x);
+            int g = parent(p);
+
+            if (g != NIL) {
+                if ((left(g) == p) == (left(p) == x)) {
+                    rotate(p); // zig-zig
+                } else {
+                    rotate(x); // zig-zag
+                }
+            }
+
+            rotate(x);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package arboralexplorer.algo.upperbound;
 
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,23 +28,21 @@ public class StaticBalancedTree {
      * @param grid
      * @return
      */
-    public static GridSet solve(GridSet grid) {
+    public static GridSet solve(GridView grid) {
         int n = grid.getWidth();
-        boolean[][] newGrid = new boolean[grid.getWidth()][grid.getHeight()];
+        GridSet newGrid = GridSet.copyGroundSet(grid);
 
         for (int i = 0; i < grid.getWidth(); i++) {
             List<Integer> accessed = getAccesses(i, n);
 
-            for (int j = 0; j < grid.getHeight(); j++) {
-                if (grid.isGroundSet(i, j)) {
-                    for (Integer access : accessed) {
-                        newGrid[access][j] = true;
-                    }
+            for (int j = grid.nextGroundSetPointInColumn(i, 0); j >= 0; j = grid.nextGroundSetPointInColumn(i, j + 1)) {
+                for (Integer access : accessed) {
+                    newGrid.addPoint(access, j);
                 }
             }
         }
 
-        return new GridSet(newGrid, grid.getGroundSet());
+        return newGrid;
     }
 
     private static List<Integer> getAccesses(int query, int n) {
@@ -17,33 +17,83 @@ package arboralexplorer.algo.upperbound;
 
 import arboralexplorer.Pair;
 import arboralexplorer.algo.ArboralChecker;
-import arboralexplorer.algo.GridSetWorker;
+import arboralexplorer.algo.SolverContext;
+import arboralexplorer.data.ArrayGridView;
 import arboralexplorer.data.GridSet;
-import arboralexplorer.gui.DrawPanel;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import arboralexplorer.data.GridView;
+import arboralexplorer.data.ViolationList;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class computes a smallest superset of the given grid without
  * ASS-violations.
  *
- * This is super slow, as it tries ALL supersets (modulo a little pruning).
+ * This is super slow, as it tries ALL supersets (modulo some pruning). A
+ * branch is pruned when the points it has added, plus a lower bound on the
+ * points it still needs to add, are no better than the best solution so far.
+ * When cancelled, it returns the best solution found so far.
  */
-public class StupidOpt extends GridSetWorker {
+public class StupidOpt {
 
     private static final int COUNT_DEPTH = 15;
     private final int totalSubsets;
     private final int totalGridSize;
     private final int maxNonGroundPos;
     private final int[] posToNonGroundPos;
+    private final GridView inputGrid;
+    private final SolverContext context;
+    private GridView gridView; // A view of the grid that is being searched
     private int handled = 0;
 
-    public StupidOpt(DrawPanel drawPanel, GridSet inputGrid) {
-        super(drawPanel, inputGrid);
+    public static GridSet solve(GridView grid) {
+        return solve(grid, new SolverContext());
+    }
+
+    /**
+     * Computes a smallest ASS that contains the ground set of the given grid,
+     * reporting progress and every improved solution to the context.
+     *
+     * @param grid
+     * @param context
+     * @return
+     */
+    public static GridSet solve(GridView grid, SolverContext context) {
+        return new StupidOpt(grid, context).solve();
+    }
+
+    /**
+     * Computes a smallest ASS that contains the ground set of the given grid,
+     * like {@link #solve(GridView, SolverContext)}, but searches in parallel
+     * on the common fork/join pool.
+     *
+     * @param grid
+     * @param context
+     * @return
+     */
+    public static GridSet solveParallel(GridView grid, SolverContext context) {
+        return solveParallel(grid, context, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes a smallest ASS that contains the ground set of the given grid,
+     * like {@link #solve(GridView, SolverContext)}, but searches in parallel
+     * on the given pool.
+     *
+     * @param grid
+     * @param context
+     * @param pool
+     * @return
+     */
+    public static GridSet solveParallel(GridView grid, SolverContext context, ForkJoinPool pool) {
+        return ParallelStupidOpt.solve(grid, context, pool);
+    }
+
+    private StupidOpt(GridView inputGrid, SolverContext context) {
+        this.inputGrid = inputGrid;
+        this.context = context;
         totalGridSize = inputGrid.getWidth() * inputGrid.getHeight();
 
-        posToNonGroundPos = new int[totalGridSize];
+        posToNonGroundPos = new int[totalGridSize + 1];
 
         int nonGroundPos = 0;
 
@@ -58,22 +108,23 @@ public class StupidOpt extends GridSetWorker {
             }
         }
 
+        posToNonGroundPos[totalGridSize] = nonGroundPos;
         totalSubsets = (int) Math.pow(2, Math.min(COUNT_DEPTH, nonGroundPos));
         maxNonGroundPos = nonGroundPos - 1;
     }
 
-    @Override
-    protected GridSet doInBackground() throws Exception {
-        boolean[][] groundSetCopy = inputGrid.getGroundSet();
+    private GridSet solve() {
+        boolean[][] groundSetCopy = GridSet.copyGroundSet(inputGrid).getGroundSet();
 
         // Compute a reasonable upper bound
-        GridSet greedySolution = GreedyASS.solve(new GridSet(groundSetCopy));
+        GridSet greedySolution = GreedyASS.solve(inputGrid);
         int greedy = greedySolution.getSize() - greedySolution.getGroundSetSize();
-        publish(greedySolution);
+        context.publish(greedySolution);
 
         // Compute the optimum
         boolean[][] workingCopy = GridSet.copyGrid(groundSetCopy);
-        Pair<boolean[][], Integer> minAss = getMinimumASS(groundSetCopy, workingCopy, 0, greedy, 0, ArboralChecker.getAllAssViolations(inputGrid));
+        gridView = new ArrayGridView(workingCopy);
+        Pair<boolean[][], Integer> minAss = getMinimumASS(groundSetCopy, workingCopy, 0, greedy, 0, ArboralChecker.getAllAssViolations(groundSetCopy));
 
         if (minAss.getSecond() == Integer.MAX_VALUE) {
             // Greedy was optimal
@@ -83,26 +134,29 @@ public class StupidOpt extends GridSetWorker {
         }
     }
 
-    private Pair<boolean[][], Integer> getMinimumASS(boolean[][] groundSet, boolean[][] newGrid, int addedPoints, int bestBound, int pos, List<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> violations) {
-        if (isCancelled()) {
+    private Pair<boolean[][], Integer> getMinimumASS(boolean[][] groundSet, boolean[][] newGrid, int addedPoints, int bestBound, int pos, ViolationList violations) {
+        if (context.isCancelled()) {
             return new Pair<>(null, Integer.MAX_VALUE);
         }
         if (addedPoints >= bestBound) {
             updateProgress(pos, true);
             return new Pair<>(null, Integer.MAX_VALUE);
         }
-        if (violations.isEmpty() && ArboralChecker.isArborallySatisfied(newGrid)) {
+        if (violations.isEmpty()) {
             updateProgress(pos, true);
 
             if (addedPoints < bestBound) {
-                System.out.println("Publishing new solution of size " + addedPoints);
-                publish(new GridSet(newGrid, groundSet));
+                context.publish(new GridSet(newGrid, groundSet));
                 return new Pair<>(GridSet.copyGrid(newGrid), addedPoints);
             } else {
                 return new Pair<>(null, Integer.MAX_VALUE);
             }
         }
-        if ((pos == totalGridSize - 1) || addedPoints == bestBound - 1) {
+
+        // Every remaining violation needs a new point
+        int remaining = Math.max(1, RemainingCostBound.lowerBound(violations, newGrid.length, pos, bestBound - addedPoints));
+
+        if (pos == totalGridSize || remaining >= bestBound - addedPoints) {
             updateProgress(pos, true);
             return new Pair<>(null, Integer.MAX_VALUE);
         }
@@ -116,34 +170,20 @@ public class StupidOpt extends GridSetWorker {
 
         Pair<boolean[][], Integer> minAssWithout = getMinimumASS(groundSet, newGrid, addedPoints, bestBound, pos + 1, violations);
 
-        if (isCancelled()) {
-            return new Pair<>(null, Integer.MAX_VALUE);
+        if (context.isCancelled()) {
+            return minAssWithout;
         }
 
         // Add the point (i, j)
         newGrid[i][j] = true;
 
-        List<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> satisfiedViolations = new ArrayList<>();
-
-        for (Iterator<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> iterator = violations.iterator(); iterator.hasNext();) {
-            Pair<Pair<Integer, Integer>, Pair<Integer, Integer>> violation = iterator.next();
-
-            int x1 = violation.getFirst().getFirst();
-            int y1 = violation.getFirst().getSecond();
-            int x2 = violation.getSecond().getFirst();
-            int y2 = violation.getSecond().getSecond();
-
-            if (Math.min(x1, x2) <= i && i <= Math.max(x1, x2) && Math.min(y1, y2) <= j && j <= Math.max(y1, y2)) {
-                satisfiedViolations.add(violation);
-                iterator.remove();
-            }
-        }
+        ViolationList withViolations = new ViolationList(violations);
+        ArboralChecker.pointAdded(gridView, withViolations, i, j);
 
-        Pair<boolean[][], Integer> minAssWith = getMinimumASS(groundSet, newGrid, addedPoints + 1, Math.min(bestBound, minAssWithout.getSecond()), pos + 1, violations);
+        Pair<boolean[][], Integer> minAssWith = getMinimumASS(groundSet, newGrid, addedPoints + 1, Math.min(bestBound, minAssWithout.getSecond()), pos + 1, withViolations);
 
         // Restore state
         newGrid[i][j] = false;
-        violations.addAll(satisfiedViolations);
 
         updateProgress(pos, false);
 
@@ -167,7 +207,6 @@ public class StupidOpt extends GridSetWorker {
 
         handled += Math.pow(2, Math.min(COUNT_DEPTH, maxNonGroundPos) - nonGroundPos);
         int progress = (100 * handled) / totalSubsets;
-        System.out.println("updP. pos: " + pos + " ngPos: " + nonGroundPos + " pruned? " + pruned + " handled: " + handled + " total: " + totalSubsets + " progress: " + progress);
-        setProgress(progress);
+        context.setProgress(progress);
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import java.util.Random;
+
+/**
+ * Simulates a Tango tree (Demaine, Harmon, Iacono and Pătraşcu) on the keys
+ * 0..n - 1. Instead of red-black trees, the auxiliary trees are treaps with
+ * random priorities, which keeps their expected depth logarithmic in the
+ * length of the preferred path, and lets cuts and joins be done with
+ * rotations: the nodes involved are rotated to the top of their auxiliary
+ * tree and then sifted back down by priority.
+ */
+public class TangoTree extends PreferredPathTree {
+
+    /**
+     * The seed of the priorities, unless another one is given, so that costs
+     * are the same on every run.
+     */
+    public static final long DEFAULT_SEED = 0;
+
+    private final int[] priority;
+
+    /**
+     * Returns a superset of the given grid without ASS-violations: the points
+     * touched by a Tango tree that accesses the ground set points, row by row,
+     * and from left to right within a row.
+     *
+     * @param grid
+     * @return
+     */
+    public static GridSet solve(GridView grid) {
+        return solve(grid, new TangoTree(grid.getWidth(), true));
+    }
+
+    /**
+     * Returns the total number of nodes touched by a Tango tree that accesses
+     * the given keys in order.
+     *
+     * @param n the number of keys
+     * @param accesses
+     * @return
+     */
+    public static long cost(int n, int[] accesses) {
+        return cost(new TangoTree(n, false), accesses);
+    }
+
+    /**
+     * Creates a Tango tree on the keys 0..n - 1, whose reference tree is
+     * balanced and has no preferred children yet. If recordTouched is false,
+     * only the total cost is kept track of.
+     *
+     * @param n
+     * @param recordTouched
+     */
+    public TangoTree(int n, boolean recordTouched) {
+        this(n, recordTouched, DEFAULT_SEED);
+    }
+
+    /**
+     * Creates a Tango tree on the keys 0..n - 1, like
+     * {@link #TangoTree(int, boolean)}, whose treap priorities are generated
+     * from the given seed.
+     *
+     * @param n
+     * @param recordTouched
+     * @param seed
+     */
+    public TangoTree(int n, boolean recordTouched, long seed) {
+        super(n, recordTouched);
+
+        Random rand = new Random(seed);
+        priority = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            priority[i] = rand.nextInt();
+        }
+    }
+
+    @Override
+    protected void raise(int x, int stop) {
+        while (!isAuxRoot(x) && parent(x) != stop) {
+            rotate(x);
+        }
+    }
+
+    @Override
+    protected void afterSwitch(int y) {
+        // Both subtrees of y are treaps apart from their root, and y is the
+        // only node of its auxiliary tree that can be out of order after that
+        if (inAuxTree(left(y))) {
+            siftDown(left(y));
+        }
+        if (inAuxTree(right(y))) {
+            siftDown(right(y));
+        }
+
+        siftDown(y);
+    }
+
+    @Override
+    protected void afterAccess(int key) {
+    }
+
+    /**
+     * Rotates x down until its children in its auxiliary tree have lower
+     * priority.
+     */
+    private void siftDown(int x) {
+        while (true) {
+            int l = left(x), r = right(x);
+            int child = NIL;
+
+            if (inAuxTree(l)) {
+                touch(l);
+
+                if (priority[l] > priority[x]) {
+                    child = l;
+                }
+            }
+            if (inAuxTree(r)) {
+                touch(r);
+
+                if (priority[r] > Math.max(priority[x], child == NIL ? Integer.MIN_VALUE : priority[child])) {
+                    child = r;
+                }
+            }
+
+            if (child == NIL) {
+                return;
+            }
+
+            rotate(child);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo.upperbound;
+
+import arboralexplorer.algo.ArboralChecker;
+import arboralexplorer.algo.SolverContext;
+import arboralexplorer.algo.lowerbound.SignedGreedy;
+import arboralexplorer.data.ArrayGridView;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import arboralexplorer.data.ViolationList;
+import java.util.Arrays;
+
+/**
+ * This class computes a smallest superset of the given grid without
+ * ASS-violations, by branch and bound on the violations.
+ *
+ * Every violation needs a new point on the two sides of its rectangle that
+ * meet at either of its corners. The search picks the violation with the
+ * fewest cells left there, and branches on which of those cells is the first
+ * one to get a point: the cells tried before it are forbidden in that branch,
+ * so no superset is visited twice. The violations are updated incrementally
+ * after every new point. A branch is pruned when a set of violations that need
+ * different points, or signed greedy on the points so far, shows that it
+ * cannot beat the best solution so far. The greedy solution is the first
+ * incumbent. When cancelled, it returns the best solution found so far.
+ */
+public class ViolationBranchOpt {
+
+    private static final int PROGRESS_DEPTH = 12; // Deeper branches are too small to report
+    private final GridView inputGrid;
+    private final SolverContext context;
+    private final int width;
+    private final int height;
+    private final boolean[][] groundSet;
+    private final boolean[][] points;
+    private final boolean[][] forbidden;
+    private final GridView gridView; // A view of points
+    private final int[][] mark; // Cells of the violations chosen by the lower bound
+    private int markStamp = 0;
+    private final int[] buffer; // The side cells of a violation
+    private int best; // The number of points added by the best solution so far
+    private GridSet bestSolution;
+    private double done = 0; // The fraction of the search tree that has been handled
+
+    public static GridSet solve(GridView grid) {
+        return solve(grid, new SolverContext());
+    }
+
+    /**
+     * Computes a smallest ASS that contains the ground set of the given grid,
+     * reporting progress and every improved solution to the context.
+     *
+     * @param grid
+     * @param context
+     * @return
+     */
+    public static GridSet solve(GridView grid, SolverContext context) {
+        return new ViolationBranchOpt(grid, context).solve();
+    }
+
+    private ViolationBranchOpt(GridView inputGrid, SolverContext context) {
+        this.inputGrid = inputGrid;
+        this.context = context;
+        width = inputGrid.getWidth();
+        height = inputGrid.getHeight();
+        groundSet = GridSet.copyGroundSet(inputGrid).getGroundSet();
+        points = GridSet.copyGrid(groundSet);
+        forbidden = new boolean[width][height];
+        gridView = new ArrayGridView(points);
+        mark = new int[width][height];
+        buffer = new int[width + height];
+    }
+
+    private GridSet solve() {
+        // The greedy solution is the first incumbent
+        bestSolution = GreedyASS.solve(inputGrid);
+        best = bestSolution.getSize() - bestSolution.getGroundSetSize();
+        context.publish(bestSolution);
+
+        search(ArboralChecker.getAllAssViolations(gridView), 0, 0, 1);
+
+        return bestSolution;
+    }
+
+    private void search(ViolationList violations, int added, int depth, double work) {
+        if (context.isCancelled()) {
+            return;
+        }
+
+        if (violations.isEmpty()) {
+            if (added < best) {
+                best = added;
+                bestSolution = new GridSet(points, groundSet);
+                context.publish(bestSolution);
+            }
+
+            updateProgress(depth, work);
+            return;
+        }
+
+        // Find the violation with the fewest free cells, and a lower bound on
+        // the number of points that still need to be added
+        int[] free = new int[violations.size()];
+        byte[] corner = new byte[violations.size()];
+        int branch = 0;
+
+        for (int v = 0; v < violations.size(); v++) {
+            int first = sideCells(violations, v, 0, null);
+            int second = sideCells(violations, v, 1, null);
+            free[v] = Math.min(first, second);
+            corner[v] = (byte) (first <= second ? 0 : 1);
+
+            if (free[v] < free[branch]) {
+                branch = v;
+            }
+        }
+
+        if (free[branch] == 0 || added + lowerBound(violations, free, corner, best - added) >= best
+                || added + signedLowerBound() >= best) {
+            updateProgress(depth, work);
+            return;
+        }
+
+        // Try the free cells that lie in the most violations first
+        int count = sideCells(violations, branch, corner[branch], buffer);
+        long[] cells = new long[count];
+
+        for (int c = 0; c < count; c++) {
+            int i = buffer[c] / height, j = buffer[c] % height;
+            int containing = 0;
+
+            for (int v = 0; v < violations.size(); v++) {
+                if (violations.rectangleContains(v, i, j)) {
+                    containing++;
+                }
+            }
+
+            cells[c] = ((long) -containing << 32) | buffer[c];
+        }
+
+        Arrays.sort(cells);
+
+        int searched = 0;
+
+        for (int c = 0; c < count && added + 1 < best; c++) {
+            int cell = (int) cells[c];
+            int i = cell / height, j = cell % height;
+
+            points[i][j] = true;
+            ViolationList withViolations = new ViolationList(violations);
+            ArboralChecker.pointAdded(gridView, withViolations, i, j);
+            search(withViolations, added + 1, depth + 1, work / count);
+            searched++;
+            points[i][j] = false;
+
+            if (context.isCancelled()) {
+                break;
+            }
+
+            // Later branches do not use this cell
+            forbidden[i][j] = true;
+        }
+
+        for (int c = 0; c < count; c++) {
+            int cell = (int) cells[c];
+            forbidden[cell / height][cell % height] = false;
+        }
+
+        if (depth == PROGRESS_DEPTH) {
+            // The branches are too deep to report progress themselves
+            updateProgress(depth, work);
+        } else {
+            updateProgress(depth, work * (count - searched) / count);
+        }
+    }
+
+    /**
+     * Finds the cells on the two sides of the rectangle of the given violation
+     * that meet at its first or second corner, excluding the corner itself,
+     * that can still get a point. Stores them in cells if that is not null,
+     * and returns their number.
+     * <p>
+     * In an ASS, the rectangle of two points that are not aligned contains a
+     * point on these sides, for either corner: of the other points in the
+     * rectangle, the one closest to the corner in x, and then in y, is aligned
+     * with the corner, as the rectangle between them would be empty otherwise.
+     */
+    private int sideCells(ViolationList violations, int v, int corner, int[] cells) {
+        int cx = (corner == 0 ? violations.getX1(v) : violations.getX2(v));
+        int cy = (corner == 0 ? violations.getY1(v) : violations.getY2(v));
+        int ox = (corner == 0 ? violations.getX2(v) : violations.getX1(v));
+        int oy = (corner == 0 ? violations.getY2(v) : violations.getY1(v));
+        int dx = (ox > cx ? 1 : -1), dy = (oy > cy ? 1 : -1);
+        int count = 0;
+
+        for (int i = cx + dx; i != ox + dx; i += dx) {
+            if (!points[i][cy] && !forbidden[i][cy]) {
+                if (cells != null) {
+                    cells[count] = i * height + cy;
+                }
+                count++;
+            }
+        }
+        for (int j = cy + dy; j != oy + dy; j += dy) {
+            if (!points[cx][j] && !forbidden[cx][j]) {
+                if (cells != null) {
+                    cells[count] = cx * height + j;
+                }
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the size of a set of violations whose free side cells are
+     * disjoint, chosen greedily from the fewest free cells up, or limit if it
+     * reaches that. Each of these violations needs a different new point.
+     */
+    private int lowerBound(ViolationList violations, int[] free, byte[] corner, int limit) {
+        long[] order = new long[violations.size()];
+
+        for (int v = 0; v < violations.size(); v++) {
+            order[v] = ((long) free[v] << 32) | v;
+        }
+
+        Arrays.sort(order);
+        markStamp++;
+        int bound = 0;
+
+        for (int k = 0; k < order.length && bound < limit; k++) {
+            int v = (int) order[k];
+            int count = sideCells(violations, v, corner[v], buffer);
+            boolean disjoint = true;
+
+            for (int c = 0; c < count && disjoint; c++) {
+                if (mark[buffer[c] / height][buffer[c] % height] == markStamp) {
+                    disjoint = false;
+                }
+            }
+
+            if (disjoint) {
+                for (int c = 0; c < count; c++) {
+                    mark[buffer[c] / height][buffer[c] % height] = markStamp;
+                }
+
+                bound++;
+            }
+        }
+
+        return bound;
+    }
+
+    /**
+     * Returns the number of points signed greedy adds to the current points,
+     * for the sign that adds the most. An ASS has no signed violations of
+     * either sign, and signed greedy adds the fewest points that remove them.
+     */
+    private int signedLowerBound() {
+        return Math.max(SignedGreedy.countAddedPoints(SignedGreedy.Sign.Positive, gridView),
+                SignedGreedy.countAddedPoints(SignedGreedy.Sign.Negative, gridView));
+    }
+
+    private void updateProgress(int depth, double work) {
+        if (depth > PROGRESS_DEPTH) {
+            return;
+        }
+
+        done += work;
+        context.setProgress((int) (100 * done));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.batch;
+
+import arboralexplorer.algo.Solver;
+import arboralexplorer.algo.SolverContext;
+import arboralexplorer.algo.lowerbound.SignedGreedy;
+import arboralexplorer.algo.lowerbound.Wilber1;
+import arboralexplorer.algo.lowerbound.WilberX;
+import arboralexplorer.algo.upperbound.FrontierOpt;
+import arboralexplorer.algo.upperbound.GreedyASS;
+import arboralexplorer.algo.upperbound.GreedyRectangle;
+import arboralexplorer.algo.upperbound.ILPSolver;
+import arboralexplorer.algo.upperbound.IncreasingSS;
+import arboralexplorer.algo.upperbound.MoveToRootTree;
+import arboralexplorer.algo.upperbound.MultiSplayTree;
+import arboralexplorer.algo.upperbound.OptStaticTree;
+import arboralexplorer.algo.upperbound.RandomMinimal;
+import arboralexplorer.algo.upperbound.SplayTree;
+import arboralexplorer.algo.upperbound.StaticBalancedTree;
+import arboralexplorer.algo.upperbound.StupidOpt;
+import arboralexplorer.algo.upperbound.TangoTree;
+import arboralexplorer.algo.upperbound.ViolationBranchOpt;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+
+/**
+ * The algorithms that can be run in batch mode, by their command-line name.
+ * Only algorithms that take a {@link SolverContext} can be cancelled or
+ * stopped by a time limit while they run.
+ */
+public enum Algorithm implements Solver {
+
+    GREEDY("greedy", false, ignoringContext(GreedyASS::solve)),
+    GREEDY_RECTANGLE("greedy-rectangle", false, ignoringContext(GreedyRectangle::solve)),
+    RANDOM_MINIMAL("random-minimal", false, ignoringContext(RandomMinimal::solve)),
+    STATIC_BALANCED_TREE("balanced-tree", false, ignoringContext(StaticBalancedTree::solve)),
+    OPT_STATIC_TREE("opt-static-tree", false, ignoringContext(OptStaticTree::solve)),
+    SPLAY("splay", false, ignoringContext(SplayTree::solve)),
+    MOVE_TO_ROOT("move-to-root", false, ignoringContext(MoveToRootTree::solve)),
+    TANGO("tango", false, ignoringContext(TangoTree::solve)),
+    MULTI_SPLAY("multi-splay", false, ignoringContext(MultiSplayTree::solve)),
+    INCREASING_SS("increasing", false, ignoringContext(IncreasingSS::solve)),
+    ILP("ilp", false, ignoringContext(ILPSolver::solve)),
+    ILP_COMPACT("ilp-compact", false, ignoringContext(ILPSolver::solveCompact)),
+    ILP_LAZY("ilp-lazy", false, ignoringContext(ILPSolver::solveLazy)),
+    STUPID_OPT("stupid-opt", false, StupidOpt::solve),
+    PARALLEL_OPT("parallel-opt", false, StupidOpt::solveParallel),
+    FRONTIER_OPT("frontier-opt", false, FrontierOpt::solve),
+    BRANCH_OPT("branch-opt", false, ViolationBranchOpt::solve),
+    SIGNED_GREEDY("signed-greedy", true, ignoringContext(SignedGreedy::solveSignedUnion)),
+    WILBER1("wilber1", true, ignoringContext(Wilber1::solve)),
+    WILBERX("wilberx", true, ignoringContext(WilberX::solve));
+
+    /**
+     * A static solve method that may throw a checked exception, such as
+     * {@link ILPSolver#solve(GridView)}.
+     */
+    interface Solve {
+
+        GridSet solve(GridView grid) throws Exception;
+    }
+
+    private final String name;
+    private final boolean lowerBound;
+    private final Solver solver;
+
+    private Algorithm(String name, boolean lowerBound, Solver solver) {
+        this.name = name;
+        this.lowerBound = lowerBound;
+        this.solver = solver;
+    }
+
+    /**
+     * Adapts a static solve method that does not take a
+     * {@link SolverContext}, and can therefore not be cancelled.
+     *
+     * @param solve
+     * @return
+     */
+    private static Solver ignoringContext(Solve solve) {
+        return new IgnoringContext(solve);
+    }
+
+    private static class IgnoringContext implements Solver {
+
+        private final Solve solve;
+
+        IgnoringContext(Solve solve) {
+            this.solve = solve;
+        }
+
+        @Override
+        public GridSet solve(GridView grid, SolverContext context) throws Exception {
+            return solve.solve(grid);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns true if the result of this algorithm is a lower bound, rather
+     * than an ASS.
+     *
+     * @return
+     */
+    public boolean isLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Returns true if this algorithm stops when its context is cancelled.
+     *
+     * @return
+     */
+    public boolean isCancellable() {
+        return !(solver instanceof IgnoringContext);
+    }
+
+    public GridSet solve(GridView grid) throws Exception {
+        return solver.solve(grid, new SolverContext());
+    }
+
+    @Override
+    public GridSet solve(GridView grid, SolverContext context) throws Exception {
+        return solver.solve(grid, context);
+    }
+
+    /**
+     * Returns the algorithm with the given command-line name.
+     *
+     * @param name
+     * @return
+     * @throws IllegalArgumentException if there is no such algorithm.
+     */
+    public static Algorithm forName(String name) {
+        for (Algorithm algorithm : values()) {
+            if (algorithm.name.equals(name)) {
+                return algorithm;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown algorithm \"" + name + "\".");
+    }
+}
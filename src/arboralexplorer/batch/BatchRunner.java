@@ -0,0 +1,339 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.batch;
+
+import arboralexplorer.algo.BlockDecomposition;
+import arboralexplorer.algo.CancellationToken;
+import arboralexplorer.algo.GridReduction;
+import arboralexplorer.algo.Solver;
+import arboralexplorer.algo.SolverContext;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.io.GridSetReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a set of algorithms on every instance in a directory, without a GUI.
+ * Each instance is read and solved by a single task on a fixed-size thread
+ * pool, and every result is written to the CSV output as soon as it is known,
+ * so the output of a long run can be inspected while it is in progress.
+ */
+public class BatchRunner {
+
+    public static final List<Algorithm> DEFAULT_ALGORITHMS = Collections.unmodifiableList(Arrays.asList(
+            Algorithm.GREEDY, Algorithm.OPT_STATIC_TREE, Algorithm.SPLAY, Algorithm.SIGNED_GREEDY, Algorithm.WILBER1));
+
+    private static final String HEADER = "instance,algorithm,width,height,ground set,size,additional points,violations,time (ms),error";
+
+    private final List<Algorithm> algorithms;
+    private final int threads;
+    private final long timeLimit;
+    private final boolean reduce;
+    private final boolean decompose;
+    private Writer out;
+    private IOException writeError;
+
+    /**
+     * Creates a runner for the given algorithms, that solves up to threads
+     * instances at the same time.
+     *
+     * @param algorithms
+     * @param threads
+     */
+    public BatchRunner(List<Algorithm> algorithms, int threads) {
+        this(algorithms, threads, 0);
+    }
+
+    /**
+     * Creates a runner for the given algorithms, that solves up to threads
+     * instances at the same time, and cancels every algorithm that runs
+     * longer than timeLimit milliseconds. A time limit of 0 means no limit.
+     *
+     * @param algorithms
+     * @param threads
+     * @param timeLimit
+     */
+    public BatchRunner(List<Algorithm> algorithms, int threads, long timeLimit) {
+        this(algorithms, threads, timeLimit, false, false);
+    }
+
+    /**
+     * Creates a runner for the given algorithms, that solves up to threads
+     * instances at the same time, and cancels every algorithm that runs
+     * longer than timeLimit milliseconds. A time limit of 0 means no limit.
+     * Algorithms that cannot be cancelled always run to completion. If reduce
+     * is true, the algorithms solve each instance without its empty rows and
+     * columns, as computed by {@link GridReduction}. If decompose is true, the
+     * blocks of each instance, as computed by {@link BlockDecomposition}, are
+     * solved concurrently.
+     *
+     * @param algorithms
+     * @param threads
+     * @param timeLimit
+     * @param reduce
+     * @param decompose
+     */
+    public BatchRunner(List<Algorithm> algorithms, int threads, long timeLimit, boolean reduce, boolean decompose) {
+        if (algorithms.isEmpty()) {
+            throw new IllegalArgumentException("At least one algorithm is required.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        }
+        if (timeLimit < 0) {
+            throw new IllegalArgumentException("The time limit must be non-negative.");
+        }
+
+        this.algorithms = new ArrayList<>(algorithms);
+        this.threads = threads;
+        this.timeLimit = timeLimit;
+        this.reduce = reduce;
+        this.decompose = decompose;
+    }
+
+    /**
+     * Usage: directory [-o output.csv] [-a algorithm,algorithm,...]
+     * [-t threads] [-l seconds] [-r] [-b]. Without an output file, the results
+     * are written to standard output, and anything else the algorithms print
+     * goes to standard error. With -r, the empty rows and columns are
+     * removed before solving. With -b, the blocks of each instance are solved
+     * separately.
+     *
+     * @param args
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path directory = null;
+        Path output = null;
+        List<Algorithm> algorithms = DEFAULT_ALGORITHMS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeLimit = 0;
+        boolean reduce = false;
+        boolean decompose = false;
+
+        try {
+            for (int a = 0; a < args.length; a++) {
+                switch (args[a]) {
+                    case "-o":
+                        output = Paths.get(args[++a]);
+                        break;
+                    case "-a":
+                        algorithms = new ArrayList<>();
+
+                        for (String name : args[++a].split(",")) {
+                            algorithms.add(Algorithm.forName(name.trim()));
+                        }
+                        break;
+                    case "-t":
+                        threads = Integer.parseInt(args[++a]);
+                        break;
+                    case "-l":
+                        timeLimit = Math.round(1000 * Double.parseDouble(args[++a]));
+                        break;
+                    case "-r":
+                        reduce = true;
+                        break;
+                    case "-b":
+                        decompose = true;
+                        break;
+                    default:
+                        if (directory != null) {
+                            throw new IllegalArgumentException("Unexpected argument \"" + args[a] + "\".");
+                        }
+
+                        directory = Paths.get(args[a]);
+                }
+            }
+
+            if (directory == null) {
+                throw new IllegalArgumentException("No instance directory given.");
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            System.err.println(ex.getMessage() == null ? "Missing argument." : ex.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        BatchRunner runner = new BatchRunner(algorithms, threads, timeLimit, reduce, decompose);
+
+        if (output == null) {
+            Writer stdout = new BufferedWriter(new OutputStreamWriter(System.out, Charset.forName("UTF-8")));
+            runner.run(directory, stdout);
+            stdout.flush();
+        } else {
+            try (Writer writer = Files.newBufferedWriter(output, Charset.forName("UTF-8"))) {
+                runner.run(directory, writer);
+            }
+        }
+    }
+
+    private static void printUsage() {
+        StringBuilder names = new StringBuilder();
+
+        for (Algorithm algorithm : Algorithm.values()) {
+            names.append(names.length() == 0 ? "" : ", ").append(algorithm.getName());
+        }
+
+        System.err.println("Usage: directory [-o output.csv] [-a algorithm,algorithm,...] [-t threads] [-l seconds] [-r] [-b]");
+        System.err.println("Algorithms: " + names);
+    }
+
+    /**
+     * Solves every .txt instance in the given directory with each algorithm,
+     * and writes one CSV line per instance and algorithm to out. The order of
+     * the lines depends on which tasks finish first.
+     *
+     * @param directory
+     * @param out
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public void run(Path directory, Writer out) throws IOException, InterruptedException {
+        List<Path> instances = new ArrayList<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.txt")) {
+            for (Path file : files) {
+                instances.add(file);
+            }
+        }
+
+        Collections.sort(instances);
+
+        this.out = out;
+        this.writeError = null;
+        writeLine(HEADER);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (Path instance : instances) {
+                pool.execute(() -> solveInstance(instance));
+            }
+
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private void solveInstance(Path instance) {
+        String name = instance.getFileName().toString();
+        GridSet grid;
+
+        try {
+            grid = GridSetReader.importGrid(instance);
+        } catch (Throwable ex) {
+            for (Algorithm algorithm : algorithms) {
+                writeLine(csv(name, algorithm.getName(), "", "", "", "", "", "", "", ex.toString()));
+            }
+            return;
+        }
+
+        String width = Integer.toString(grid.getWidth());
+        String height = Integer.toString(grid.getHeight());
+        int groundSetSize = grid.getGroundSetSize();
+
+        for (Algorithm algorithm : algorithms) {
+            String line;
+            SolverContext context = new SolverContext(timeLimit > 0
+                    ? CancellationToken.withTimeout(timeLimit, TimeUnit.MILLISECONDS)
+                    : new CancellationToken());
+            Solver solver = reduce ? GridReduction.reducing(algorithm) : algorithm;
+
+            if (decompose) {
+                solver = BlockDecomposition.decomposing(solver, algorithm.isLowerBound());
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                GridSet solution = solver.solve(grid, context);
+                long time = System.nanoTime() - start;
+
+                line = csv(name, algorithm.getName(), width, height,
+                        Integer.toString(groundSetSize),
+                        Integer.toString(solution.getSize()),
+                        Integer.toString(solution.getSize() - groundSetSize),
+                        Integer.toString(solution.getViolationCount()),
+                        String.format(Locale.ROOT, "%.3f", time / 1e6),
+                        algorithm.isCancellable() && context.isCancelled() ? "time limit reached" : "");
+            } catch (Throwable ex) {
+                // Also report errors such as a StackOverflowError, so that
+                // the instance's other algorithms still run
+                long time = System.nanoTime() - start;
+                line = csv(name, algorithm.getName(), width, height,
+                        Integer.toString(groundSetSize), "", "", "",
+                        String.format(Locale.ROOT, "%.3f", time / 1e6), ex.toString());
+            }
+
+            writeLine(line);
+        }
+    }
+
+    private synchronized void writeLine(String line) {
+        if (writeError != null) {
+            return;
+        }
+
+        try {
+            out.write(line);
+            out.write(System.lineSeparator());
+            out.flush();
+        } catch (IOException ex) {
+            writeError = ex;
+        }
+    }
+
+    private static String csv(String... fields) {
+        StringBuilder line = new StringBuilder();
+
+        for (String field : fields) {
+            if (line.length() > 0) {
+                line.append(',');
+            }
+
+            if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+
+        return line.toString();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.data;
+
+/**
+ * A GridView over boolean arrays, indexed as grid[i][j]. The arrays are not
+ * copied, so changes to them are visible through the view.
+ */
+public class ArrayGridView implements GridView {
+
+    private final boolean[][] gridSet;
+    private final boolean[][] groundSet;
+
+    /**
+     * Creates a view in which every point is also in the ground set.
+     *
+     * @param gridSet
+     */
+    public ArrayGridView(boolean[][] gridSet) {
+        this(gridSet, gridSet);
+    }
+
+    public ArrayGridView(boolean[][] gridSet, boolean[][] groundSet) {
+        if (gridSet.length == 0 || gridSet[0].length == 0) {
+            throw new IllegalArgumentException("Grid must have non-zero size.");
+        }
+        if (gridSet.length != groundSet.length || gridSet[0].length != groundSet[0].length) {
+            throw new IllegalArgumentException("Grid set and ground set must have the same size.");
+        }
+
+        this.gridSet = gridSet;
+        this.groundSet = groundSet;
+    }
+
+    @Override
+    public int getWidth() {
+        return gridSet.length;
+    }
+
+    @Override
+    public int getHeight() {
+        return gridSet[0].length;
+    }
+
+    @Override
+    public boolean hasPoint(int i, int j) {
+        return gridSet[i][j];
+    }
+
+    @Override
+    public boolean isGroundSet(int i, int j) {
+        return groundSet[i][j];
+    }
+
+    @Override
+    public int nextPointInRow(int i, int j) {
+        return nextInRow(gridSet, i, j);
+    }
+
+    @Override
+    public int previousPointInRow(int i, int j) {
+        return previousInRow(gridSet, i, j);
+    }
+
+    @Override
+    public int nextPointInColumn(int i, int j) {
+        return nextInColumn(gridSet, i, j);
+    }
+
+    @Override
+    public int previousPointInColumn(int i, int j) {
+        return previousInColumn(gridSet, i, j);
+    }
+
+    @Override
+    public int nextGroundSetPointInRow(int i, int j) {
+        return nextInRow(groundSet, i, j);
+    }
+
+    @Override
+    public int previousGroundSetPointInRow(int i, int j) {
+        return previousInRow(groundSet, i, j);
+    }
+
+    @Override
+    public int nextGroundSetPointInColumn(int i, int j) {
+        return nextInColumn(groundSet, i, j);
+    }
+
+    @Override
+    public int previousGroundSetPointInColumn(int i, int j) {
+        return previousInColumn(groundSet, i, j);
+    }
+
+    @Override
+    public int getSize() {
+        return count(gridSet);
+    }
+
+    @Override
+    public int getGroundSetSize() {
+        return count(groundSet);
+    }
+
+    private static int nextInRow(boolean[][] grid, int i, int j) {
+        for (int ii = Math.max(i, 0); ii < grid.length; ii++) {
+            if (grid[ii][j]) {
+                return ii;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int previousInRow(boolean[][] grid, int i, int j) {
+        for (int ii = Math.min(i, grid.length - 1); ii >= 0; ii--) {
+            if (grid[ii][j]) {
+                return ii;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int nextInColumn(boolean[][] grid, int i, int j) {
+        boolean[] column = grid[i];
+
+        for (int jj = Math.max(j, 0); jj < column.length; jj++) {
+            if (column[jj]) {
+                return jj;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int previousInColumn(boolean[][] grid, int i, int j) {
+        boolean[] column = grid[i];
+
+        for (int jj = Math.min(j, column.length - 1); jj >= 0; jj--) {
+            if (column[jj]) {
+                return jj;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int count(boolean[][] grid) {
+        int count = 0;
+
+        for (boolean[] column : grid) {
+            for (boolean point : column) {
+                if (point) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.data;
+
+import java.util.Arrays;
+
+/**
+ * A bit-packed set of grid points. Rows are stored one after the other, each
+ * row taking a whole number of 64-bit words, so a sweep over the rows reads
+ * memory in order and can skip empty stretches a word at a time.
+ */
+final class DensePointSet implements PointSet {
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    DensePointSet(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+
+        long totalWords = (long) wordsPerRow * height;
+
+        if (totalWords > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid of size " + width + " x " + height + " is too large for dense storage.");
+        }
+
+        this.words = new long[(int) totalWords];
+    }
+
+    DensePointSet(DensePointSet other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.wordsPerRow = other.wordsPerRow;
+        this.words = Arrays.copyOf(other.words, other.words.length);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean contains(int i, int j) {
+        checkBounds(i, j);
+
+        return (words[j * wordsPerRow + (i >>> 6)] & (1L << i)) != 0;
+    }
+
+    @Override
+    public boolean add(int i, int j) {
+        checkBounds(i, j);
+
+        int index = j * wordsPerRow + (i >>> 6);
+        long old = words[index];
+        words[index] = old | (1L << i);
+
+        return old != words[index];
+    }
+
+    @Override
+    public boolean remove(int i, int j) {
+        checkBounds(i, j);
+
+        int index = j * wordsPerRow + (i >>> 6);
+        long old = words[index];
+        words[index] = old & ~(1L << i);
+
+        return old != words[index];
+    }
+
+    @Override
+    public int nextInRow(int i, int j) {
+        if (i >= width) {
+            return -1;
+        }
+
+        int rowStart = j * wordsPerRow;
+        int rowEnd = rowStart + wordsPerRow;
+        int index = rowStart + (i >>> 6);
+        long word = words[index] & (-1L << i);
+
+        while (word == 0) {
+            index++;
+
+            if (index == rowEnd) {
+                return -1;
+            }
+
+            word = words[index];
+        }
+
+        return ((index - rowStart) << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    public int previousInRow(int i, int j) {
+        if (i < 0) {
+            return -1;
+        }
+
+        int rowStart = j * wordsPerRow;
+        int index = rowStart + (Math.min(i, width - 1) >>> 6);
+        long word = words[index] & (-1L >>> (63 - (Math.min(i, width - 1) & 63)));
+
+        while (word == 0) {
+            if (index == rowStart) {
+                return -1;
+            }
+
+            index--;
+            word = words[index];
+        }
+
+        return ((index - rowStart) << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+
+        return size;
+    }
+
+    @Override
+    public int nextInColumn(int i, int j) {
+        for (int jj = Math.max(j, 0); jj < height; jj++) {
+            if (contains(i, jj)) {
+                return jj;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int previousInColumn(int i, int j) {
+        for (int jj = Math.min(j, height - 1); jj >= 0; jj--) {
+            if (contains(i, jj)) {
+                return jj;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public DensePointSet copy() {
+        return new DensePointSet(this);
+    }
+
+    private void checkBounds(int i, int j) {
+        if (i < 0 || i >= width || j < 0 || j >= height) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") is outside the " + width + " x " + height + " grid.");
+        }
+    }
+}
@@ -15,25 +15,89 @@
  */
 package arboralexplorer.data;
 
-import arboralexplorer.Pair;
 import arboralexplorer.algo.ArboralChecker;
-import java.util.List;
 
-public class GridSet {
+public class GridSet implements GridView {
+
+    /**
+     * The ways in which a GridSet can store its points.
+     */
+    public static enum Storage {
+        /**
+         * One bit per cell. Fast for grids that are a sizeable fraction full.
+         */
+        DENSE,
+        /**
+         * Sorted point lists per row and per column. Memory grows with the
+         * number of points, not with the area of the grid.
+         */
+        SPARSE;
+
+        private static final long MAX_DENSE_CELLS = 1L << 26;
+
+        /**
+         * Returns the storage to use for a grid of the given size when nothing
+         * else is known about it.
+         *
+         * @param width
+         * @param height
+         * @return
+         */
+        public static Storage forSize(int width, int height) {
+            return ((long) width * height <= MAX_DENSE_CELLS ? DENSE : SPARSE);
+        }
+    }
 
     private final static int INVALID = -1;
 
-    private final boolean[][] gridSet;
-    private final boolean[][] groundSet;
+    private final PointSet gridSet;
+    private final PointSet groundSet;
     
     private WilberData wilberData = null;
     
-    private List<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> violations = null;
+    private ViolationList violations = null;
     private int size = INVALID;
     private int groundSetSize = INVALID;
+    private int modificationCount = 0;
     
     private int wilber = INVALID;
 
+    /**
+     * Creates a new, empty GridSet of the given size.
+     *
+     * @param width
+     * @param height
+     * @throws IllegalArgumentException if any of the dimensions of the grid is
+     * not positive.
+     */
+    public GridSet(int width, int height) {
+        this(width, height, Storage.DENSE);
+    }
+
+    /**
+     * Creates a new, empty GridSet of the given size that stores its points in
+     * the given way.
+     *
+     * @param width
+     * @param height
+     * @param storage
+     * @throws IllegalArgumentException if any of the dimensions of the grid is
+     * not positive.
+     */
+    public GridSet(int width, int height, Storage storage) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Grid must have non-zero size.");
+        }
+
+        if (storage == Storage.SPARSE) {
+            this.gridSet = new SparsePointSet(width, height);
+            this.groundSet = new SparsePointSet(width, height);
+        } else {
+            this.gridSet = new DensePointSet(width, height);
+            this.groundSet = new DensePointSet(width, height);
+        }
+    }
+
     /**
      * Creates a new GridSet with the given ground set and no other points.
      *
@@ -60,16 +124,59 @@ public class GridSet {
         if (gridSet.length != groundSet.length || gridSet[0].length != groundSet[0].length) {
             throw new IllegalArgumentException("Grid set and ground set must have the same size.");
         }
+
+        this.gridSet = new DensePointSet(gridSet.length, gridSet[0].length);
+        this.groundSet = new DensePointSet(gridSet.length, gridSet[0].length);
+
         for (int i = 0; i < gridSet.length; i++) {
             for (int j = 0; j < gridSet[0].length; j++) {
                 if (groundSet[i][j] && !gridSet[i][j]) {
                     throw new IllegalArgumentException("Ground set must be a subset of the grid set.");
                 }
+
+                if (gridSet[i][j]) {
+                    this.gridSet.add(i, j);
+                }
+                if (groundSet[i][j]) {
+                    this.groundSet.add(i, j);
+                }
             }
         }
+    }
+
+    /**
+     * Creates a new GridSet with the given grid set and the ground set of the
+     * given grid.
+     *
+     * @param gridSet
+     * @param ground
+     * @throws IllegalArgumentException if the dimensions of the grids are zero,
+     * or don't match, or if the ground set is not a subset of the grid set.
+     */
+    public GridSet(boolean[][] gridSet, GridView ground) {
+        this(gridSet.length, (gridSet.length == 0 ? 0 : gridSet[0].length));
+
+        if (getWidth() != ground.getWidth() || getHeight() != ground.getHeight()) {
+            throw new IllegalArgumentException("Grid set and ground set must have the same size.");
+        }
+
+        for (int i = 0; i < gridSet.length; i++) {
+            for (int j = 0; j < gridSet[0].length; j++) {
+                if (gridSet[i][j]) {
+                    this.gridSet.add(i, j);
+                }
+            }
+        }
+
+        for (int j = 0; j < getHeight(); j++) {
+            for (int i = ground.nextGroundSetPointInRow(0, j); i >= 0; i = ground.nextGroundSetPointInRow(i + 1, j)) {
+                if (!gridSet[i][j]) {
+                    throw new IllegalArgumentException("Ground set must be a subset of the grid set.");
+                }
 
-        this.gridSet = copyGrid(gridSet);
-        this.groundSet = copyGrid(groundSet);
+                this.groundSet.add(i, j);
+            }
+        }
     }
 
     /**
@@ -78,7 +185,61 @@ public class GridSet {
      * @param grid
      */
     public GridSet(GridSet grid) {
-        this(grid.gridSet, grid.groundSet);
+        this.gridSet = grid.gridSet.copy();
+        this.groundSet = grid.groundSet.copy();
+        this.size = grid.size;
+        this.groundSetSize = grid.groundSetSize;
+
+        if (grid.violations != null) {
+            this.violations = new ViolationList(grid.violations);
+        }
+    }
+
+    /**
+     * Creates a new GridSet with the same points and ground set as the given
+     * view.
+     *
+     * @param grid
+     */
+    public GridSet(GridView grid) {
+        this(grid.getWidth(), grid.getHeight(), storageOf(grid));
+
+        for (int j = 0; j < grid.getHeight(); j++) {
+            for (int i = grid.nextPointInRow(0, j); i >= 0; i = grid.nextPointInRow(i + 1, j)) {
+                gridSet.add(i, j);
+
+                if (grid.isGroundSet(i, j)) {
+                    groundSet.add(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new GridSet with the same ground set as the given grid and no
+     * other points.
+     *
+     * @param grid
+     * @return
+     */
+    public static GridSet copyGroundSet(GridView grid) {
+        GridSet copy = new GridSet(grid.getWidth(), grid.getHeight(), storageOf(grid));
+
+        for (int j = 0; j < grid.getHeight(); j++) {
+            for (int i = grid.nextGroundSetPointInRow(0, j); i >= 0; i = grid.nextGroundSetPointInRow(i + 1, j)) {
+                copy.addToGroundSet(i, j);
+            }
+        }
+
+        return copy;
+    }
+
+    private static Storage storageOf(GridView grid) {
+        if (grid instanceof GridSet) {
+            return ((GridSet) grid).getStorage();
+        } else {
+            return Storage.forSize(grid.getWidth(), grid.getHeight());
+        }
     }
     
     /**
@@ -87,8 +248,9 @@ public class GridSet {
      *
      * @return
      */
+    @Override
     public int getWidth() {
-        return gridSet.length;
+        return gridSet.getWidth();
     }
 
     /**
@@ -97,8 +259,18 @@ public class GridSet {
      *
      * @return
      */
+    @Override
     public int getHeight() {
-        return gridSet[0].length;
+        return gridSet.getHeight();
+    }
+
+    /**
+     * Returns the way in which this GridSet stores its points.
+     *
+     * @return
+     */
+    public Storage getStorage() {
+        return (gridSet instanceof SparsePointSet ? Storage.SPARSE : Storage.DENSE);
     }
 
     /**
@@ -109,11 +281,9 @@ public class GridSet {
      * @param j
      */
     public void addPoint(int i, int j) {
-        if (!gridSet[i][j]) {
-            invalidate();
+        if (gridSet.add(i, j)) {
+            pointAdded(i, j);
         }
-
-        gridSet[i][j] = true;
     }
 
     /**
@@ -124,12 +294,20 @@ public class GridSet {
      * @param j
      */
     public void removePoint(int i, int j) {
-        if (gridSet[i][j]) {
-            invalidate();
+        if (gridSet.remove(i, j)) {
+            modificationCount++;
+
+            if (size != INVALID) {
+                size--;
+            }
+            if (violations != null) {
+                ArboralChecker.pointRemoved(this, violations, i, j);
+            }
         }
 
-        gridSet[i][j] = false;
-        groundSet[i][j] = false;
+        if (groundSet.remove(i, j) && groundSetSize != INVALID) {
+            groundSetSize--;
+        }
     }
 
     /**
@@ -139,8 +317,61 @@ public class GridSet {
      * @param j
      * @return
      */
+    @Override
     public boolean hasPoint(int i, int j) {
-        return gridSet[i][j];
+        return gridSet.contains(i, j);
+    }
+
+    /**
+     * Returns the smallest i' >= i such that (i', j) is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int nextPointInRow(int i, int j) {
+        return gridSet.nextInRow(i, j);
+    }
+
+    /**
+     * Returns the largest i' <= i such that (i', j) is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int previousPointInRow(int i, int j) {
+        return gridSet.previousInRow(i, j);
+    }
+
+    /**
+     * Returns the smallest j' >= j such that (i, j') is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int nextPointInColumn(int i, int j) {
+        return gridSet.nextInColumn(i, j);
+    }
+
+    /**
+     * Returns the largest j' <= j such that (i, j') is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int previousPointInColumn(int i, int j) {
+        return gridSet.previousInColumn(i, j);
     }
 
     /**
@@ -151,13 +382,12 @@ public class GridSet {
      * @param j
      */
     public void addToGroundSet(int i, int j) {
-        if (!gridSet[i][j]) {
-            invalidate();
+        if (gridSet.add(i, j)) {
+            pointAdded(i, j);
         }
 
-        if (!groundSet[i][j]) {
-            gridSet[i][j] = true;
-            groundSet[i][j] = true;
+        if (groundSet.add(i, j)) {
+            modificationCount++;
 
             if (groundSetSize != INVALID) {
                 groundSetSize++;
@@ -173,8 +403,8 @@ public class GridSet {
      * @param j
      */
     public void removeFromGroundSet(int i, int j) {
-        if (groundSet[i][j]) {
-            groundSet[i][j] = false;
+        if (groundSet.remove(i, j)) {
+            modificationCount++;
 
             if (groundSetSize != INVALID) {
                 groundSetSize--;
@@ -189,8 +419,61 @@ public class GridSet {
      * @param j
      * @return
      */
+    @Override
     public boolean isGroundSet(int i, int j) {
-        return groundSet[i][j];
+        return groundSet.contains(i, j);
+    }
+
+    /**
+     * Returns the smallest i' >= i such that (i', j) is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int nextGroundSetPointInRow(int i, int j) {
+        return groundSet.nextInRow(i, j);
+    }
+
+    /**
+     * Returns the largest i' <= i such that (i', j) is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int previousGroundSetPointInRow(int i, int j) {
+        return groundSet.previousInRow(i, j);
+    }
+
+    /**
+     * Returns the smallest j' >= j such that (i, j') is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int nextGroundSetPointInColumn(int i, int j) {
+        return groundSet.nextInColumn(i, j);
+    }
+
+    /**
+     * Returns the largest j' <= j such that (i, j') is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    @Override
+    public int previousGroundSetPointInColumn(int i, int j) {
+        return groundSet.previousInColumn(i, j);
     }
 
     /**
@@ -200,7 +483,7 @@ public class GridSet {
      * @return
      */
     public boolean[][] getGridSet() {
-        return copyGrid(gridSet);
+        return toArray(gridSet);
     }
 
     /**
@@ -210,15 +493,17 @@ public class GridSet {
      * @return
      */
     public boolean[][] getGroundSet() {
-        return copyGrid(groundSet);
+        return toArray(groundSet);
     }
 
     /**
-     * Returns a list of all ASS violations in the current grid set.
+     * Returns a list of all ASS violations in the current grid set. Once
+     * computed, the list is updated in place as points are added or removed,
+     * so it should not be modified by the caller.
      *
      * @return
      */
-    public List<Pair<Pair<Integer, Integer>, Pair<Integer, Integer>>> getViolations() {
+    public ViolationList getViolations() {
         if (violations == null) {
             violations = ArboralChecker.getAllAssViolations(this);
         }
@@ -226,11 +511,38 @@ public class GridSet {
         return violations;
     }
 
+    /**
+     * Returns a number that changes every time a point is added to or removed
+     * from this grid set or its ground set. Can be used to tell whether
+     * information derived from the grid is still up to date.
+     *
+     * @return
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns the number of ASS violations in the current grid set. This uses
+     * the list of violations if it has already been computed, and only counts
+     * them otherwise.
+     *
+     * @return
+     */
+    public int getViolationCount() {
+        if (violations == null) {
+            return ArboralChecker.countAssViolations(this);
+        }
+
+        return violations.size();
+    }
+
     /**
      * Returns the total number of points in this grid set.
      *
      * @return
      */
+    @Override
     public int getSize() {
         if (size == INVALID) {
             computeSize();
@@ -244,6 +556,7 @@ public class GridSet {
      *
      * @return
      */
+    @Override
     public int getGroundSetSize() {
         if (groundSetSize == INVALID) {
             computeSize();
@@ -252,10 +565,19 @@ public class GridSet {
         return groundSetSize;
     }
 
-    private void invalidate() {
-        violations = null;
-        size = INVALID;
-        groundSetSize = INVALID;
+    /**
+     * Brings the cached size and violations up to date after (i, j) was added
+     * to the grid set.
+     */
+    private void pointAdded(int i, int j) {
+        modificationCount++;
+
+        if (size != INVALID) {
+            size++;
+        }
+        if (violations != null) {
+            ArboralChecker.pointAdded(this, violations, i, j);
+        }
     }
     
     public void setWilberData(WilberData data) {
@@ -267,20 +589,20 @@ public class GridSet {
     }
 
     private void computeSize() {
-        size = 0;
-        groundSetSize = 0;
+        size = gridSet.size();
+        groundSetSize = groundSet.size();
+    }
 
-        for (int i = 0; i < gridSet.length; i++) {
-            for (int j = 0; j < gridSet[0].length; j++) {
-                if (gridSet[i][j]) {
-                    size++;
+    private static boolean[][] toArray(PointSet points) {
+        boolean[][] grid = new boolean[points.getWidth()][points.getHeight()];
 
-                    if (groundSet[i][j]) {
-                        groundSetSize++;
-                    }
-                }
+        for (int j = 0; j < points.getHeight(); j++) {
+            for (int i = points.nextInRow(0, j); i >= 0; i = points.nextInRow(i + 1, j)) {
+                grid[i][j] = true;
             }
         }
+
+        return grid;
     }
 
     public static boolean[][] copyGrid(boolean[][] grid) {
@@ -299,13 +621,13 @@ public class GridSet {
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder(gridSet.length * gridSet[0].length);
+        StringBuilder sb = new StringBuilder(getWidth() * (getHeight() + 1));
 
-        for (int i = 0; i < gridSet.length; i++) {
-            for (int j = 0; j < gridSet[0].length; j++) {
-                if (!gridSet[i][j]) {
+        for (int i = 0; i < getWidth(); i++) {
+            for (int j = 0; j < getHeight(); j++) {
+                if (!gridSet.contains(i, j)) {
                     sb.append('.');
-                } else if (!groundSet[i][j]) {
+                } else if (!groundSet.contains(i, j)) {
                     sb.append('+');
                 } else {
                     sb.append('0');
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.data;
+
+/**
+ * Read-only access to a grid with a point set and a ground set. Algorithms that
+ * only need to look at a grid should take a GridView, so that callers can pass
+ * a GridSet without copying it.
+ */
+public interface GridView {
+
+    /**
+     * Returns the width of the grid. The first coordinate can take values in
+     * [0, width).
+     *
+     * @return
+     */
+    int getWidth();
+
+    /**
+     * Returns the height of the grid. The second coordinate can take values in
+     * [0, height).
+     *
+     * @return
+     */
+    int getHeight();
+
+    /**
+     * Checks whether the point (i, j) is in the grid set.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    boolean hasPoint(int i, int j);
+
+    /**
+     * Checks whether the point (i, j) is in the ground set.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    boolean isGroundSet(int i, int j);
+
+    /**
+     * Returns the smallest i' >= i such that (i', j) is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int nextPointInRow(int i, int j);
+
+    /**
+     * Returns the largest i' <= i such that (i', j) is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int previousPointInRow(int i, int j);
+
+    /**
+     * Returns the smallest j' >= j such that (i, j') is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int nextPointInColumn(int i, int j);
+
+    /**
+     * Returns the largest j' <= j such that (i, j') is in the grid set, or -1
+     * if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int previousPointInColumn(int i, int j);
+
+    /**
+     * Returns the smallest i' >= i such that (i', j) is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int nextGroundSetPointInRow(int i, int j);
+
+    /**
+     * Returns the largest i' <= i such that (i', j) is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int previousGroundSetPointInRow(int i, int j);
+
+    /**
+     * Returns the smallest j' >= j such that (i, j') is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int nextGroundSetPointInColumn(int i, int j);
+
+    /**
+     * Returns the largest j' <= j such that (i, j') is in the ground set, or
+     * -1 if there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int previousGroundSetPointInColumn(int i, int j);
+
+    /**
+     * Returns the total number of points in the grid set.
+     *
+     * @return
+     */
+    int getSize();
+
+    /**
+     * Returns the number of points in the ground set.
+     *
+     * @return
+     */
+    int getGroundSetSize();
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.data;
+
+/**
+ * The storage behind a GridSet: a set of points in a width x height grid.
+ */
+interface PointSet {
+
+    int getWidth();
+
+    int getHeight();
+
+    boolean contains(int i, int j);
+
+    /**
+     * Adds the point (i, j).
+     *
+     * @param i
+     * @param j
+     * @return true if the point was not in the set before.
+     */
+    boolean add(int i, int j);
+
+    /**
+     * Removes the point (i, j).
+     *
+     * @param i
+     * @param j
+     * @return true if the point was in the set before.
+     */
+    boolean remove(int i, int j);
+
+    /**
+     * Returns the smallest i' >= i such that (i', j) is in the set, or -1 if
+     * there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int nextInRow(int i, int j);
+
+    /**
+     * Returns the largest i' <= i such that (i', j) is in the set, or -1 if
+     * there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int previousInRow(int i, int j);
+
+    /**
+     * Returns the smallest j' >= j such that (i, j') is in the set, or -1 if
+     * there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int nextInColumn(int i, int j);
+
+    /**
+     * Returns the largest j' <= j such that (i, j') is in the set, or -1 if
+     * there is no such point.
+     *
+     * @param i
+     * @param j
+     * @return
+     */
+    int previousInColumn(int i, int j);
+
+    /**
+     * Returns the number of points in the set.
+     *
+     * @return
+     */
+    int size();
+
+    /**
+     * Returns an independent copy of this set.
+     *
+     * @return
+     */
+    PointSet copy();
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.data;
+
+import java.util.Arrays;
+
+/**
+ * A set of grid points that stores, for every row, the sorted columns of its
+ * points and, for every column, the sorted rows of its points. Memory grows
+ * with the number of points rather than with the area of the grid, which makes
+ * it suitable for access sequences with millions of rows.
+ */
+final class SparsePointSet implements PointSet {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int INITIAL_CAPACITY = 2;
+
+    private final int width;
+    private final int height;
+    private final int[][] rows; // rows[j][0..rowSize[j]) are the sorted columns of the points in row j
+    private final int[] rowSize;
+    private final int[][] columns; // columns[i][0..columnSize[i]) are the sorted rows of the points in column i
+    private final int[] columnSize;
+    private int size = 0;
+
+    SparsePointSet(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.rows = new int[height][];
+        this.rowSize = new int[height];
+        this.columns = new int[width][];
+        this.columnSize = new int[width];
+
+        Arrays.fill(rows, EMPTY);
+        Arrays.fill(columns, EMPTY);
+    }
+
+    SparsePointSet(SparsePointSet other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.rows = new int[height][];
+        this.rowSize = Arrays.copyOf(other.rowSize, height);
+        this.columns = new int[width][];
+        this.columnSize = Arrays.copyOf(other.columnSize, width);
+        this.size = other.size;
+
+        for (int j = 0; j < height; j++) {
+            rows[j] = (rowSize[j] == 0 ? EMPTY : Arrays.copyOf(other.rows[j], rowSize[j]));
+        }
+        for (int i = 0; i < width; i++) {
+            columns[i] = (columnSize[i] == 0 ? EMPTY : Arrays.copyOf(other.columns[i], columnSize[i]));
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean contains(int i, int j) {
+        checkBounds(i, j);
+
+        return Arrays.binarySearch(rows[j], 0, rowSize[j], i) >= 0;
+    }
+
+    @Override
+    public boolean add(int i, int j) {
+        checkBounds(i, j);
+
+        int rowIndex = Arrays.binarySearch(rows[j], 0, rowSize[j], i);
+
+        if (rowIndex >= 0) {
+            return false;
+        }
+
+        rows[j] = insert(rows[j], rowSize[j], -(rowIndex + 1), i);
+        rowSize[j]++;
+
+        int columnIndex = Arrays.binarySearch(columns[i], 0, columnSize[i], j);
+        columns[i] = insert(columns[i], columnSize[i], -(columnIndex + 1), j);
+        columnSize[i]++;
+
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(int i, int j) {
+        checkBounds(i, j);
+
+        int rowIndex = Arrays.binarySearch(rows[j], 0, rowSize[j], i);
+
+        if (rowIndex < 0) {
+            return false;
+        }
+
+        System.arraycopy(rows[j], rowIndex + 1, rows[j], rowIndex, rowSize[j] - rowIndex - 1);
+        rowSize[j]--;
+
+        int columnIndex = Arrays.binarySearch(columns[i], 0, columnSize[i], j);
+        System.arraycopy(columns[i], columnIndex + 1, columns[i], columnIndex, columnSize[i] - columnIndex - 1);
+        columnSize[i]--;
+
+        size--;
+        return true;
+    }
+
+    @Override
+    public int nextInRow(int i, int j) {
+        return next(rows[j], rowSize[j], i);
+    }
+
+    @Override
+    public int previousInRow(int i, int j) {
+        return previous(rows[j], rowSize[j], i);
+    }
+
+    @Override
+    public int nextInColumn(int i, int j) {
+        return next(columns[i], columnSize[i], j);
+    }
+
+    @Override
+    public int previousInColumn(int i, int j) {
+        return previous(columns[i], columnSize[i], j);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public SparsePointSet copy() {
+        return new SparsePointSet(this);
+    }
+
+    /**
+     * Returns the smallest element >= value in the sorted array
+     * sorted[0..length), or -1 if there is none.
+     */
+    private static int next(int[] sorted, int length, int value) {
+        int index = Arrays.binarySearch(sorted, 0, length, value);
+
+        if (index < 0) {
+            index = -(index + 1);
+        }
+
+        return (index < length ? sorted[index] : -1);
+    }
+
+    /**
+     * Returns the largest element <= value in the sorted array
+     * sorted[0..length), or -1 if there is none.
+     */
+    private static int previous(int[] sorted, int length, int value) {
+        int index = Arrays.binarySearch(sorted, 0, length, value);
+
+        if (index < 0) {
+            index = -(index + 1) - 1;
+        }
+
+        return (index >= 0 ? sorted[index] : -1);
+    }
+
+    /**
+     * Inserts value at position index of sorted[0..length), growing the array
+     * if necessary, and returns the (possibly new) array.
+     */
+    private static int[] insert(int[] sorted, int length, int index, int value) {
+        int[] result = sorted;
+
+        if (length == sorted.length) {
+            result = Arrays.copyOf(sorted, Math.max(INITIAL_CAPACITY, 2 * length));
+        }
+
+        System.arraycopy(result, index, result, index + 1, length - index);
+        result[index] = value;
+
+        return result;
+    }
+
+    private void checkBounds(int i, int j) {
+        if (i < 0 || i >= width || j < 0 || j >= height) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") is outside the " + width + " x " + height + " grid.");
+        }
+    }
+}
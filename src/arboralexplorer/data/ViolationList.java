@@ -0,0 +1,266 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.data;
+
+import java.util.Arrays;
+
+/**
+ * A list of ASS violations, each given by the two corners (x1, y1) and (x2, y2)
+ * of its empty rectangle. The corners are packed into a single int array, so
+ * adding or reading a violation does not allocate.
+ */
+public class ViolationList {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] corners; // x1, y1, x2, y2 for each violation
+    private int size = 0;
+
+    public ViolationList() {
+        corners = new int[4 * INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a new ViolationList that is a copy of the given list.
+     *
+     * @param violations
+     */
+    public ViolationList(ViolationList violations) {
+        corners = Arrays.copyOf(violations.corners, Math.max(4 * violations.size, 4 * INITIAL_CAPACITY));
+        size = violations.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(int x1, int y1, int x2, int y2) {
+        if (4 * size == corners.length) {
+            corners = Arrays.copyOf(corners, 2 * corners.length);
+        }
+
+        int offset = 4 * size;
+        corners[offset] = x1;
+        corners[offset + 1] = y1;
+        corners[offset + 2] = x2;
+        corners[offset + 3] = y2;
+        size++;
+    }
+
+    /**
+     * Appends the first count violations of the given list to this one.
+     *
+     * @param violations
+     * @param count
+     */
+    public void addAll(ViolationList violations, int count) {
+        if (count < 0 || count > violations.size) {
+            throw new IllegalArgumentException("Cannot add " + count + " of " + violations.size + " violations.");
+        }
+
+        if (4 * (size + count) > corners.length) {
+            corners = Arrays.copyOf(corners, Math.max(2 * corners.length, 4 * (size + count)));
+        }
+
+        System.arraycopy(violations.corners, 0, corners, 4 * size, 4 * count);
+        size += count;
+    }
+
+    public int getX1(int index) {
+        return corners[4 * index];
+    }
+
+    public int getY1(int index) {
+        return corners[4 * index + 1];
+    }
+
+    public int getX2(int index) {
+        return corners[4 * index + 2];
+    }
+
+    public int getY2(int index) {
+        return corners[4 * index + 3];
+    }
+
+    /**
+     * Checks whether the point (x, y) lies in the closed rectangle of the
+     * violation at the given index.
+     *
+     * @param index
+     * @param x
+     * @param y
+     * @return
+     */
+    public boolean rectangleContains(int index, int x, int y) {
+        int offset = 4 * index;
+        int x1 = corners[offset], y1 = corners[offset + 1], x2 = corners[offset + 2], y2 = corners[offset + 3];
+
+        return Math.min(x1, x2) <= x && x <= Math.max(x1, x2) && Math.min(y1, y2) <= y && y <= Math.max(y1, y2);
+    }
+
+    /**
+     * Removes all violations whose closed rectangle contains the point (x, y).
+     * The removed violations are moved to just past the end of the list, so
+     * that a call to {@link #restore(int)} with the returned count brings them
+     * back, as long as nothing was added in between.
+     *
+     * @param x
+     * @param y
+     * @return the number of removed violations.
+     */
+    public int removeContaining(int x, int y) {
+        int removed = 0;
+
+        for (int index = size - 1; index >= 0; index--) {
+            if (rectangleContains(index, x, y)) {
+                removed++;
+                swap(index, size - removed);
+            }
+        }
+
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Removes all violations that have (x, y) as one of their corners. The
+     * removed violations can be brought back with {@link #restore(int)}, just
+     * like with {@link #removeContaining(int, int)}.
+     *
+     * @param x
+     * @param y
+     * @return the number of removed violations.
+     */
+    public int removeWithCorner(int x, int y) {
+        int removed = 0;
+
+        for (int index = size - 1; index >= 0; index--) {
+            int offset = 4 * index;
+
+            if ((corners[offset] == x && corners[offset + 1] == y) || (corners[offset + 2] == x && corners[offset + 3] == y)) {
+                removed++;
+                swap(index, size - removed);
+            }
+        }
+
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Brings back the last count removed violations.
+     *
+     * @param count
+     */
+    public void restore(int count) {
+        if (count < 0 || 4 * (size + count) > corners.length) {
+            throw new IllegalArgumentException("Cannot restore " + count + " violations.");
+        }
+
+        size += count;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns a cursor over the violations, positioned before the first one.
+     *
+     * @return
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void swap(int a, int b) {
+        if (a != b) {
+            int offsetA = 4 * a, offsetB = 4 * b;
+
+            for (int k = 0; k < 4; k++) {
+                int temp = corners[offsetA + k];
+                corners[offsetA + k] = corners[offsetB + k];
+                corners[offsetB + k] = temp;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int index = 0; index < size; index++) {
+            if (index > 0) {
+                sb.append(", ");
+            }
+
+            sb.append("((").append(getX1(index)).append(", ").append(getY1(index)).append("), (")
+                    .append(getX2(index)).append(", ").append(getY2(index)).append("))");
+        }
+
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Walks over the violations in order:
+     * <pre>
+     * for (ViolationList.Cursor c = violations.cursor(); c.next();) {
+     *     ... c.x1(), c.y1(), c.x2(), c.y2() ...
+     * }
+     * </pre>
+     */
+    public class Cursor {
+
+        private int index = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Moves to the next violation.
+         *
+         * @return false if there are no more violations.
+         */
+        public boolean next() {
+            index++;
+            return index < size;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int x1() {
+            return corners[4 * index];
+        }
+
+        public int y1() {
+            return corners[4 * index + 1];
+        }
+
+        public int x2() {
+            return corners[4 * index + 2];
+        }
+
+        public int y2() {
+            return corners[4 * index + 3];
+        }
+    }
+}
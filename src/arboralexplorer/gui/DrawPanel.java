@@ -18,6 +18,7 @@ package arboralexplorer.gui;
 import arboralexplorer.Pair;
 import arboralexplorer.algo.ArboralChecker;
 import arboralexplorer.data.GridSet;
+import arboralexplorer.data.ViolationList;
 import arboralexplorer.data.WilberData;
 import java.awt.BasicStroke;
 import java.awt.Color;
@@ -51,6 +52,10 @@ public class DrawPanel extends JPanel implements MouseListener, MouseMotionListe
     // Drawing options
     boolean drawCriticality = false;
     boolean drawBlack = true;
+    // Criticality of every point, computed for the given grid and modification count
+    private int[][] criticality = null;
+    private GridSet criticalityGrid = null;
+    private int criticalityModificationCount;
 
     public DrawPanel() {
         initialize();
@@ -148,16 +153,30 @@ public class DrawPanel extends JPanel implements MouseListener, MouseMotionListe
         g.drawLine(xWorldToScreen(x1), yWorldToScreen(y1), xWorldToScreen(x2), yWorldToScreen(y2));
     }
 
+    /**
+     * Returns the criticality of every point of the grid, recomputing it only
+     * if the grid has changed since the last call.
+     */
+    private int[][] getCriticality() {
+        if (criticality == null || criticalityGrid != grid || criticalityModificationCount != grid.getModificationCount()) {
+            criticality = ArboralChecker.computeCriticalityMap(grid);
+            criticalityGrid = grid;
+            criticalityModificationCount = grid.getModificationCount();
+        }
+
+        return criticality;
+    }
+
     private void drawPoint(Graphics g, int x, int y) {
         if (grid.isGroundSet(x, y)) {
             g.setColor(Color.blue);
         } else {
             if (drawCriticality) {
-                int criticality = ArboralChecker.computeCriticality(grid, x, y);
+                int pointCriticality = getCriticality()[x][y];
 
-                if (criticality <= 0) {
+                if (pointCriticality <= 0) {
                     g.setColor(new Color(255, 241, 35, 128));
-                } else if (criticality == 1) {
+                } else if (pointCriticality == 1) {
                     g.setColor(new Color(255, 152, 57, 128));
                 } else {
                     g.setColor(new Color(240, 25, 117, 128));
@@ -179,22 +198,12 @@ public class DrawPanel extends JPanel implements MouseListener, MouseMotionListe
         g.drawOval(xWorldToScreen(x) - radius, yWorldToScreen(y) - radius, 2 * radius, 2 * radius);
     }
 
-    private void fillViolation(Graphics g, Pair<Pair<Integer, Integer>, Pair<Integer, Integer>> violation) {
-        int x1 = violation.getFirst().getFirst();
-        int y1 = violation.getFirst().getSecond();
-        int x2 = violation.getSecond().getFirst();
-        int y2 = violation.getSecond().getSecond();
-
+    private void fillViolation(Graphics g, int x1, int y1, int x2, int y2) {
         g.setColor(new Color(255, 32, 32, 32));
         g.fillRect(xWorldToScreen(Math.min(x1, x2) + 0.1), yWorldToScreen(Math.min(y1, y2) + 0.1), (int) Math.round((Math.abs(x1 - x2) - 0.2) / zoomfactor), (int) Math.round((Math.abs(y1 - y2) - 0.2) / zoomfactor));
     }
 
-    private void drawViolation(Graphics g, Pair<Pair<Integer, Integer>, Pair<Integer, Integer>> violation) {
-        int x1 = violation.getFirst().getFirst();
-        int y1 = violation.getFirst().getSecond();
-        int x2 = violation.getSecond().getFirst();
-        int y2 = violation.getSecond().getSecond();
-
+    private void drawViolation(Graphics g, int x1, int y1, int x2, int y2) {
         g.setColor(Color.red);
         Graphics2D g2 = (Graphics2D) g;
         g2.setStroke(new BasicStroke(2));
@@ -237,8 +246,10 @@ public class DrawPanel extends JPanel implements MouseListener, MouseMotionListe
         ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // Fill violation rectangles
-        for (Pair<Pair<Integer, Integer>, Pair<Integer, Integer>> violation : grid.getViolations()) {
-            fillViolation(g, violation);
+        ViolationList violations = grid.getViolations();
+
+        for (ViolationList.Cursor v = violations.cursor(); v.next();) {
+            fillViolation(g, v.x1(), v.y1(), v.x2(), v.y2());
         }
 
         // Draw the grid
@@ -254,8 +265,8 @@ public class DrawPanel extends JPanel implements MouseListener, MouseMotionListe
         }
 
         // Draw violations
-        for (Pair<Pair<Integer, Integer>, Pair<Integer, Integer>> violation : grid.getViolations()) {
-            drawViolation(g, violation);
+        for (ViolationList.Cursor v = violations.cursor(); v.next();) {
+            drawViolation(g, v.x1(), v.y1(), v.x2(), v.y2());
         }
 
         // Draw the Wilber data
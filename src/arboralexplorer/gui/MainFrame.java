@@ -16,10 +16,12 @@
 package arboralexplorer.gui;
 
 import arboralexplorer.algo.GridSetGenerator;
+import arboralexplorer.algo.GridSetWorker;
 import arboralexplorer.algo.lowerbound.LinearProgramLB;
 import arboralexplorer.algo.upperbound.GreedyASS;
 import arboralexplorer.algo.upperbound.ILPSolver;
 import arboralexplorer.algo.upperbound.OptStaticTree;
+import arboralexplorer.algo.upperbound.SplayTree;
 import arboralexplorer.algo.upperbound.StaticBalancedTree;
 import arboralexplorer.algo.upperbound.StupidOpt;
 import arboralexplorer.algo.lowerbound.SignedGreedy;
@@ -75,7 +77,7 @@ public class MainFrame extends javax.swing.JFrame implements SetChangeListener {
     public void gridChanged(DrawPanel source, GridSet newGrid) {
         groundSetSizeLabel.setText("Ground Set: " + newGrid.getGroundSetSize());
         extraPointsLabel.setText("Additional: " + (newGrid.getSize() - newGrid.getGroundSetSize()));
-        violationsLabel.setText("Violations: " + newGrid.getViolations().size());
+        violationsLabel.setText("Violations: " + newGrid.getViolationCount());
     }
 
     /**
@@ -112,6 +114,7 @@ public class MainFrame extends javax.swing.JFrame implements SetChangeListener {
         jSeparator2 = new javax.swing.JPopupMenu.Separator();
         staticBalancedMenuItem = new javax.swing.JMenuItem();
         optStaticTreeMenuItem = new javax.swing.JMenuItem();
+        splayMenuItem = new javax.swing.JMenuItem();
         stupidOptMenuItem = new javax.swing.JMenuItem();
         randMinimalMenuItem = new javax.swing.JMenuItem();
         lowerboundMenu = new javax.swing.JMenu();
@@ -294,6 +297,14 @@ public class MainFrame extends javax.swing.JFrame implements SetChangeListener {
         });
         solveMenu.add(optStaticTreeMenuItem);
 
+        splayMenuItem.setText("Splay Tree");
+        splayMenuItem.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                splayMenuItemActionPerformed(evt);
+            }
+        });
+        solveMenu.add(splayMenuItem);
+
         stupidOptMenuItem.setText("Super slow opt");
         stupidOptMenuItem.addActionListener(new java.awt.event.ActionListener() {
             public void actionPerformed(java.awt.event.ActionEvent evt) {
@@ -483,7 +494,7 @@ public class MainFrame extends javax.swing.JFrame implements SetChangeListener {
     }//GEN-LAST:event_greedyMenuItemActionPerformed
 
     private void clearMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_clearMenuItemActionPerformed
-        drawPanel.setGrid(new GridSet(drawPanel.getGrid().getGroundSet()));
+        drawPanel.setGrid(GridSet.copyGroundSet(drawPanel.getGrid()));
     }//GEN-LAST:event_clearMenuItemActionPerformed
 
     private void fixGroundMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_fixGroundMenuItemActionPerformed
@@ -498,13 +509,17 @@ public class MainFrame extends javax.swing.JFrame implements SetChangeListener {
         drawPanel.setGrid(OptStaticTree.solve(drawPanel.getGrid()));
     }//GEN-LAST:event_optStaticTreeMenuItemActionPerformed
 
+    private void splayMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_splayMenuItemActionPerformed
+        drawPanel.setGrid(SplayTree.solve(drawPanel.getGrid()));
+    }//GEN-LAST:event_splayMenuItemActionPerformed
+
     private void stupidOptMenuItemActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_stupidOptMenuItemActionPerformed
         ProgressMonitor progressMonitor = new ProgressMonitor(MainFrame.this, "Trying all subsets.", "", 0, 100);
         progressMonitor.setProgress(0);
         progressMonitor.setMillisToDecideToPopup(100);
         progressMonitor.setMillisToPopup(400);
 
-        StupidOpt stupid = new StupidOpt(drawPanel, drawPanel.getGrid());
+        GridSetWorker stupid = new GridSetWorker(drawPanel, StupidOpt::solve, drawPanel.getGrid());
         stupid.addPropertyChangeListener((PropertyChangeEvent e) -> {
             if ("progress".equals(e.getPropertyName())) {
                 int progress = (Integer) e.getNewValue();
@@ -641,6 +656,7 @@ public class MainFrame extends javax.swing.JFrame implements SetChangeListener {
     private javax.swing.JMenuItem signedPositiveGreedyMenuItem;
     private javax.swing.JMenuItem signedUnionGreedyMenuItem;
     private javax.swing.JMenu solveMenu;
+    private javax.swing.JMenuItem splayMenuItem;
     private javax.swing.JMenuItem staticBalancedMenuItem;
     private javax.swing.JPanel statusPanel;
     private javax.swing.JMenuItem stupidOptMenuItem;
@@ -26,8 +26,7 @@ public class GridSetReader {
 
     public static GridSet importGrid(Path path) throws IOException {
         try (BufferedReader in = Files.newBufferedReader(path, Charset.forName("UTF-8"))) {
-            boolean[][] points = new boolean[0][0];
-            boolean[][] groundSet = new boolean[0][0];
+            GridSet grid = null;
 
             for (String line = in.readLine(); line != null; line = in.readLine()) {
                 if (line.startsWith("#") || line.trim().isEmpty()) {
@@ -49,22 +48,28 @@ public class GridSetReader {
                     continue;
                 }
 
+                if (grid == null && !parts[0].equals("S")) {
+                    throw new IOException("Point (" + i + ", " + j + ") appears before the size of the grid.");
+                }
+
                 switch (parts[0]) {
                     case "S": // Size
-                        points = new boolean[i][j];
-                        groundSet = new boolean[i][j];
+                        grid = new GridSet(i, j, GridSet.Storage.forSize(i, j));
                         break;
                     case "G": // Ground set point
-                        points[i][j] = true;
-                        groundSet[i][j] = true;
+                        grid.addToGroundSet(i, j);
                         break;
                     case "P": // Regular point
-                        points[i][j] = true;
+                        grid.addPoint(i, j);
                         break;
                 }
             }
 
-            return new GridSet(points, groundSet);
+            if (grid == null) {
+                throw new IllegalArgumentException("Grid must have non-zero size.");
+            }
+
+            return grid;
         }
     }
 }
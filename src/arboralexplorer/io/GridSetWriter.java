@@ -37,11 +37,9 @@ public class GridSetWriter {
             out.newLine();
 
             for (int i = 0; i < grid.getWidth(); i++) {
-                for (int j = 0; j < grid.getHeight(); j++) {
-                    if (grid.isGroundSet(i, j)) {
-                        out.write("G " + i + " " + j);
-                        out.newLine();
-                    }
+                for (int j = grid.nextGroundSetPointInColumn(i, 0); j >= 0; j = grid.nextGroundSetPointInColumn(i, j + 1)) {
+                    out.write("G " + i + " " + j);
+                    out.newLine();
                 }
             }
 
@@ -50,8 +48,8 @@ public class GridSetWriter {
             out.newLine();
 
             for (int i = 0; i < grid.getWidth(); i++) {
-                for (int j = 0; j < grid.getHeight(); j++) {
-                    if (grid.hasPoint(i, j) && !grid.isGroundSet(i, j)) {
+                for (int j = grid.nextPointInColumn(i, 0); j >= 0; j = grid.nextPointInColumn(i, j + 1)) {
+                    if (!grid.isGroundSet(i, j)) {
                         out.write("P " + i + " " + j);
                         out.newLine();
                     }
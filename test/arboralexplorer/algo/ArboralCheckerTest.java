@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.algo.upperbound.GreedyASS;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.ViolationList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Sander Verdonschot <sander.verdonschot at gmail.com>
+ */
+public class ArboralCheckerTest {
+
+    public ArboralCheckerTest() {
+    }
+
+    @Test
+    public void testSegmentTreeMatchesRowScan() {
+        Random rand = new Random(42);
+
+        for (int test = 0; test < 500; test++) {
+            int width = 1 + rand.nextInt(40);
+            int height = 1 + rand.nextInt(40);
+            double density = rand.nextDouble();
+            GridSet grid = new GridSet(width, height, (test % 2 == 0 ? GridSet.Storage.DENSE : GridSet.Storage.SPARSE));
+
+            for (int i = 0; i < width; i++) {
+                for (int j = 0; j < height; j++) {
+                    if (rand.nextDouble() < density) {
+                        grid.addPoint(i, j);
+                    }
+                }
+            }
+
+            assertSameResults(grid);
+        }
+    }
+
+    @Test
+    public void testSegmentTreeOnPermutations() {
+        Random rand = new Random(7);
+
+        for (int test = 0; test < 50; test++) {
+            int n = 1 + rand.nextInt(200);
+            int[] permutation = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                int j = rand.nextInt(i + 1);
+                permutation[i] = permutation[j];
+                permutation[j] = i;
+            }
+
+            GridSet grid = new GridSet(n, n, GridSet.Storage.SPARSE);
+
+            for (int i = 0; i < n; i++) {
+                grid.addToGroundSet(i, permutation[i]);
+            }
+
+            assertSameResults(grid);
+            assertSameResults(GreedyASS.solve(grid));
+        }
+    }
+
+    @Test
+    public void testParallelMatchesRowScan() {
+        Random rand = new Random(3);
+
+        for (int test = 0; test < 40; test++) {
+            int width = 1 + rand.nextInt(60);
+            int height = 1 + rand.nextInt(2000);
+            double density = 0.3 * rand.nextDouble();
+            GridSet grid = new GridSet(width, height, (test % 2 == 0 ? GridSet.Storage.DENSE : GridSet.Storage.SPARSE));
+
+            for (int i = 0; i < width; i++) {
+                for (int j = 0; j < height; j++) {
+                    if (rand.nextDouble() < density) {
+                        grid.addPoint(i, j);
+                    }
+                }
+            }
+
+            assertSameResults(grid);
+            assertSameResults(GreedyASS.solve(grid));
+        }
+    }
+
+    @Test
+    public void testIncrementalViolations() {
+        Random rand = new Random(11);
+
+        for (int test = 0; test < 200; test++) {
+            int width = 1 + rand.nextInt(15);
+            int height = 1 + rand.nextInt(15);
+            GridSet grid = new GridSet(width, height, (test % 2 == 0 ? GridSet.Storage.DENSE : GridSet.Storage.SPARSE));
+
+            // Start maintaining the list right away in half of the tests, and
+            // halfway through the changes in the other half
+            if (test % 4 < 2) {
+                grid.getViolations();
+            }
+
+            for (int step = 0; step < 80; step++) {
+                int i = rand.nextInt(width);
+                int j = rand.nextInt(height);
+
+                switch (rand.nextInt(3)) {
+                    case 0:
+                        grid.addPoint(i, j);
+                        break;
+                    case 1:
+                        grid.removePoint(i, j);
+                        break;
+                    default:
+                        grid.addToGroundSet(i, j);
+                }
+
+                if (step == 40) {
+                    grid.getViolations();
+                }
+
+                ViolationList expected = ArboralChecker.getAllAssViolations(grid, ArboralChecker.Method.ROW_SCAN);
+                assertEquals(expected.size(), grid.getViolationCount());
+
+                if (test % 4 < 2 || step >= 40) {
+                    assertEquals(sorted(expected), sorted(grid.getViolations()));
+                }
+            }
+        }
+    }
+
+    private static List<String> sorted(ViolationList violations) {
+        List<String> list = new ArrayList<>();
+
+        for (ViolationList.Cursor v = violations.cursor(); v.next();) {
+            list.add(v.x1() + "," + v.y1() + "," + v.x2() + "," + v.y2());
+        }
+
+        Collections.sort(list);
+        return list;
+    }
+
+    private void assertSameResults(GridSet grid) {
+        String expected = ArboralChecker.getAllAssViolations(grid, ArboralChecker.Method.ROW_SCAN).toString();
+        String actual = ArboralChecker.getAllAssViolations(grid, ArboralChecker.Method.SEGMENT_TREE).toString();
+        assertEquals(expected, actual);
+        assertEquals(expected, ArboralChecker.getAllAssViolations(grid, ArboralChecker.Method.PARALLEL).toString());
+
+        int count = ArboralChecker.countAssViolations(grid, ArboralChecker.Method.ROW_SCAN);
+        assertEquals(count, ArboralChecker.countAssViolations(grid, ArboralChecker.Method.SEGMENT_TREE));
+        assertEquals(count, ArboralChecker.countAssViolations(grid, ArboralChecker.Method.PARALLEL));
+        assertEquals(count == 0, ArboralChecker.isArborallySatisfied(grid, ArboralChecker.Method.SEGMENT_TREE));
+        assertEquals(count == 0, ArboralChecker.isArborallySatisfied(grid, ArboralChecker.Method.PARALLEL));
+    }
+}
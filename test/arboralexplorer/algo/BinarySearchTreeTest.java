@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.algo.upperbound.MoveToRootTree;
+import arboralexplorer.algo.upperbound.MultiSplayTree;
+import arboralexplorer.algo.upperbound.SplayTree;
+import arboralexplorer.algo.upperbound.TangoTree;
+import arboralexplorer.data.GridSet;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.Test;
+
+/**
+ *
+ * @author Sander Verdonschot <sander.verdonschot at gmail.com>
+ */
+public class BinarySearchTreeTest {
+
+    public BinarySearchTreeTest() {
+    }
+
+    @Test
+    public void testSplayTree() {
+        assertSolvesRandomGrids(SplayTree::solve, 1);
+    }
+
+    @Test
+    public void testMoveToRootTree() {
+        assertSolvesRandomGrids(MoveToRootTree::solve, 2);
+    }
+
+    @Test
+    public void testTangoTree() {
+        assertSolvesRandomGrids(TangoTree::solve, 3);
+    }
+
+    @Test
+    public void testMultiSplayTree() {
+        assertSolvesRandomGrids(MultiSplayTree::solve, 4);
+    }
+
+    /**
+     * Checks that the points the tree touches form an ASS containing the
+     * ground set, on random grids with several accesses per row.
+     */
+    private static void assertSolvesRandomGrids(Function<GridSet, GridSet> tree, long seed) {
+        Random rand = new Random(seed);
+
+        for (int test = 0; test < 500; test++) {
+            int width = 1 + rand.nextInt(12);
+            int height = 1 + rand.nextInt(12);
+            GridSet grid = new GridSet(width, height, (test % 2 == 0 ? GridSet.Storage.DENSE : GridSet.Storage.SPARSE));
+
+            for (int j = 0; j < height; j++) {
+                for (int n = 1 + rand.nextInt(3); n > 0; n--) {
+                    grid.addToGroundSet(rand.nextInt(width), j);
+                }
+            }
+
+            ExactSolverTest.assertIsAss(grid, tree.apply(grid));
+        }
+    }
+}
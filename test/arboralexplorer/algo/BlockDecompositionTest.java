@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.algo.upperbound.FrontierOpt;
+import arboralexplorer.data.GridSet;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Sander Verdonschot <sander.verdonschot at gmail.com>
+ */
+public class BlockDecompositionTest {
+
+    public BlockDecompositionTest() {
+    }
+
+    @Test
+    public void testBounds() throws Exception {
+        Random rand = new Random(7);
+        int decomposed = 0;
+
+        for (int test = 0; test < 300; test++) {
+            GridSet grid = randomBlockGrid(rand, 2 + rand.nextInt(7), 2 + rand.nextInt(7));
+            int optimum = FrontierOpt.solve(grid).getSize();
+
+            if (new BlockDecomposition(grid).getBlocks().size() > 1) {
+                decomposed++;
+            }
+
+            GridSet upper = BlockDecomposition.solve(grid, FrontierOpt::solve, false, new SolverContext());
+            ExactSolverTest.assertIsAss(grid, upper);
+            assertTrue(upper.getSize() >= optimum);
+
+            // The blocks are solved optimally, so their sum is a lower bound
+            GridSet lower = BlockDecomposition.solve(grid, FrontierOpt::solve, true, new SolverContext());
+            assertEquals(grid.getGroundSetSize(), lower.getGroundSetSize());
+            assertTrue(lower.getSize() <= optimum);
+        }
+
+        assertTrue(decomposed > 0);
+    }
+
+    /**
+     * Fills consecutive bands of rows with points from a few columns each,
+     * so that most grids consist of several blocks.
+     */
+    private static GridSet randomBlockGrid(Random rand, int width, int height) {
+        GridSet grid = new GridSet(width, height);
+
+        for (int j = 0; j < height;) {
+            int rows = 1 + rand.nextInt(3);
+            int firstColumn = rand.nextInt(width);
+            int lastColumn = Math.min(width - 1, firstColumn + rand.nextInt(3));
+
+            for (int end = Math.min(height, j + rows); j < end; j++) {
+                if (rand.nextDouble() < 0.8) {
+                    grid.addToGroundSet(firstColumn + rand.nextInt(lastColumn - firstColumn + 1), j);
+                }
+            }
+        }
+
+        return grid;
+    }
+}
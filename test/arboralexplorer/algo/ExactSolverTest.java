@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.algo.upperbound.FrontierOpt;
+import arboralexplorer.algo.upperbound.StupidOpt;
+import arboralexplorer.algo.upperbound.ViolationBranchOpt;
+import arboralexplorer.data.GridSet;
+import arboralexplorer.data.GridView;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Sander Verdonschot <sander.verdonschot at gmail.com>
+ */
+public class ExactSolverTest {
+
+    public ExactSolverTest() {
+    }
+
+    @Test
+    public void testExactSolversAgree() {
+        Random rand = new Random(11);
+
+        for (int test = 0; test < 100; test++) {
+            GridSet grid = randomGrid(rand, 1 + rand.nextInt(5), 1 + rand.nextInt(5));
+
+            GridSet frontier = FrontierOpt.solve(grid);
+            assertIsAss(grid, frontier);
+
+            GridSet stupid = StupidOpt.solve(grid);
+            assertIsAss(grid, stupid);
+            assertEquals(stupid.getSize(), frontier.getSize());
+
+            GridSet parallel = StupidOpt.solveParallel(grid, new SolverContext());
+            assertIsAss(grid, parallel);
+            assertEquals(stupid.getSize(), parallel.getSize());
+
+            GridSet branch = ViolationBranchOpt.solve(grid);
+            assertIsAss(grid, branch);
+            assertEquals(stupid.getSize(), branch.getSize());
+        }
+    }
+
+    @Test
+    public void testFrontierOptOnTallGrids() {
+        Random rand = new Random(5);
+
+        // More rows than fit in one strip, so that strips need to be combined
+        for (int test = 0; test < 10; test++) {
+            int height = 17 + rand.nextInt(4);
+            GridSet grid = new GridSet(3, height);
+
+            for (int j = 0; j < height; j++) {
+                grid.addToGroundSet(rand.nextInt(3), j);
+            }
+
+            GridSet frontier = FrontierOpt.solve(grid);
+            assertIsAss(grid, frontier);
+
+            GridSet stupid = StupidOpt.solve(grid);
+            assertEquals(stupid.getSize(), frontier.getSize());
+
+            GridSet branch = ViolationBranchOpt.solve(grid);
+            assertIsAss(grid, branch);
+            assertEquals(stupid.getSize(), branch.getSize());
+        }
+    }
+
+    static GridSet randomGrid(Random rand, int width, int height) {
+        double density = rand.nextDouble();
+        GridSet grid = new GridSet(width, height);
+
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                if (rand.nextDouble() < density) {
+                    grid.addToGroundSet(i, j);
+                }
+            }
+        }
+
+        return grid;
+    }
+
+    static void assertIsAss(GridView grid, GridSet solution) {
+        assertTrue(ArboralChecker.isArborallySatisfied(solution));
+
+        for (int i = 0; i < grid.getWidth(); i++) {
+            for (int j = 0; j < grid.getHeight(); j++) {
+                if (grid.isGroundSet(i, j)) {
+                    assertTrue(solution.isGroundSet(i, j));
+                }
+            }
+        }
+    }
+}
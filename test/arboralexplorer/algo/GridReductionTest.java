@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.algo;
+
+import arboralexplorer.algo.upperbound.FrontierOpt;
+import arboralexplorer.data.GridSet;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Sander Verdonschot <sander.verdonschot at gmail.com>
+ */
+public class GridReductionTest {
+
+    public GridReductionTest() {
+    }
+
+    @Test
+    public void testReductionKeepsOptimum() throws Exception {
+        Random rand = new Random(3);
+
+        for (int test = 0; test < 200; test++) {
+            int width = 1 + rand.nextInt(8);
+            int height = 1 + rand.nextInt(8);
+            GridSet grid = new GridSet(width, height);
+
+            // Sparse enough to leave empty rows and columns
+            for (int n = rand.nextInt(Math.min(width, height) + 1); n > 0; n--) {
+                grid.addToGroundSet(rand.nextInt(width), rand.nextInt(height));
+            }
+
+            GridSet reduced = GridReduction.solve(grid, FrontierOpt::solve, new SolverContext());
+            ExactSolverTest.assertIsAss(grid, reduced);
+            assertEquals(FrontierOpt.solve(grid).getSize(), reduced.getSize());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Sander Verdonschot <sander.verdonschot at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package arboralexplorer.data;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Sander Verdonschot <sander.verdonschot at gmail.com>
+ */
+public class GridSetTest {
+
+    public GridSetTest() {
+    }
+
+    @Test
+    public void testOutOfBoundsQueries() {
+        int[][] outside = {{64, 0}, {-1, 0}, {0, 2}, {0, -1}};
+
+        for (GridSet.Storage storage : GridSet.Storage.values()) {
+            GridSet grid = new GridSet(64, 2, storage);
+            grid.addToGroundSet(0, 1);
+
+            for (int[] p : outside) {
+                try {
+                    grid.hasPoint(p[0], p[1]);
+                    fail(storage + " accepted hasPoint(" + p[0] + ", " + p[1] + ")");
+                } catch (IndexOutOfBoundsException ex) {
+                    // Expected
+                }
+
+                try {
+                    grid.isGroundSet(p[0], p[1]);
+                    fail(storage + " accepted isGroundSet(" + p[0] + ", " + p[1] + ")");
+                } catch (IndexOutOfBoundsException ex) {
+                    // Expected
+                }
+            }
+        }
+    }
+}